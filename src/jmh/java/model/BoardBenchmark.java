@@ -0,0 +1,117 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the basic operations of the {@link Board}. Every benchmark runs on the field array ({@code Board})
+ * and on the bit board ({@code BitBoard}) of the default size, which is filled half with random pieces.
+ *
+ * @author Hannes Illy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /**
+     * The implementation of the board.
+     */
+    @Param({"Board", "BitBoard"})
+    public String implementation;
+
+    /**
+     * The board, which is half filled.
+     */
+    private Board board;
+    /**
+     * The column of the next operation.
+     */
+    private int column;
+
+    /**
+     * Creates the board and places random pieces, so that no player has won.
+     */
+    @Setup
+    public void setup() {
+        this.board = "BitBoard".equals(this.implementation) ? new BitBoard() : new Board();
+        Random random = new Random(1);
+        int piece = 1;
+        while (this.board.getMoveCount() < 21) {
+            int column = random.nextInt(this.board.getColumns());
+            // keep one free field in every column for placePiece
+            if (this.board.getHeight(column) < this.board.getRows() - 1 && !this.board.isWinningMove(column, piece)) {
+                this.board.placePiece(column, piece);
+                piece = 3 - piece;
+            }
+        }
+    }
+
+    /**
+     * Returns the next column, so that all columns are used in turn.
+     *
+     * @return The column.
+     */
+    private int nextColumn() {
+        this.column = this.column + 1 == this.board.getColumns() ? 0 : this.column + 1;
+        return this.column;
+    }
+
+    /**
+     * Places a piece and removes it again, so the board does not change between invocations.
+     *
+     * @return If the piece was placed.
+     */
+    @Benchmark
+    public boolean placePiece() {
+        int column = this.nextColumn();
+        boolean placed = this.board.placePiece(column, 1);
+        this.board.removePiece(column);
+        return placed;
+    }
+
+    /**
+     * Checks if the board is full.
+     *
+     * @return If the board is full.
+     */
+    @Benchmark
+    public boolean isFull() {
+        return this.board.isFull();
+    }
+
+    /**
+     * Gets the row of the top piece of a column.
+     *
+     * @return The row.
+     */
+    @Benchmark
+    public int getLastPiecePosition() {
+        return this.board.getLastPiecePosition(this.nextColumn());
+    }
+
+    /**
+     * Checks if a piece would win in a column.
+     *
+     * @return If the move wins.
+     */
+    @Benchmark
+    public boolean isWinningMove() {
+        return this.board.isWinningMove(this.nextColumn(), 1);
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of whole moves and games of {@link VierGewinnt}: placing pieces with the win check and playing random
+ * games on the default and on large boards.
+ *
+ * @author Hannes Illy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VierGewinntBenchmark {
+    /**
+     * The number of moves of the game in {@link #placePiece()}.
+     */
+    private static final int DRAW_MOVES = 42;
+
+    /**
+     * The game of the default size, in which the pieces are placed.
+     */
+    private VierGewinnt game;
+    /**
+     * The moves of a game of the default size, that ends in a draw.
+     */
+    private int[] drawMoves;
+
+    /**
+     * The state of the random games, which are played on boards of different sizes.
+     */
+    @State(Scope.Thread)
+    public static class RandomGame {
+        /**
+         * The size of the board: columns x rows.
+         */
+        @Param({"7x6", "12x10", "20x16"})
+        public String size;
+
+        /**
+         * The game, in which the random games are played.
+         */
+        private VierGewinnt game;
+        /**
+         * The random numbers of the moves.
+         */
+        private SplittableRandom random;
+
+        /**
+         * Creates the game.
+         */
+        @Setup
+        public void setup() {
+            String[] dimensions = this.size.split("x");
+            this.game = new VierGewinnt(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+            this.random = new SplittableRandom(1);
+        }
+    }
+
+    /**
+     * Creates the game and searches a game, that ends in a draw.
+     */
+    @Setup
+    public void setup() {
+        this.game = new VierGewinnt();
+        Random random = new Random(1);
+        do {
+            this.game.reset();
+            while (!this.game.hasEnded()) {
+                int column = random.nextInt(this.game.getColumns());
+                if (this.game.canPlacePiece(column)) {
+                    this.game.placePiece(column);
+                }
+            }
+        } while (this.game.getWinningPlayer() != 0);
+        this.drawMoves = new int[DRAW_MOVES];
+        for (int i = 0; i < DRAW_MOVES; i++) {
+            this.drawMoves[i] = this.game.getMove(i);
+        }
+    }
+
+    /**
+     * Places all pieces of a game, that ends in a draw, so every move checks for a win. The time is given per move.
+     *
+     * @return The winner.
+     */
+    @Benchmark
+    @OperationsPerInvocation(DRAW_MOVES)
+    public int placePiece() {
+        this.game.reset();
+        for (int column : this.drawMoves) {
+            this.game.placePiece(column);
+        }
+        return this.game.getWinningPlayer();
+    }
+
+    /**
+     * Plays a game with random moves until it has ended.
+     *
+     * @param state The game and the random numbers.
+     * @return The winner.
+     */
+    @Benchmark
+    public int randomGame(RandomGame state) {
+        VierGewinnt game = state.game;
+        game.reset();
+        while (!game.hasEnded()) {
+            int column = state.random.nextInt(game.getColumns());
+            if (game.canPlacePiece(column)) {
+                game.placePiece(column);
+            }
+        }
+        return game.getWinningPlayer();
+    }
+}
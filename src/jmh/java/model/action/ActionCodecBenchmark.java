@@ -0,0 +1,157 @@
+package model.action;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the wire protocol: encoding an action with the {@link ActionOutputEncoder} and decoding it with the
+ * {@link ActionInputDecoder}, one benchmark run per action type. The streams are in memory and reused, so only the
+ * costs of the encoder and the decoder are measured.
+ * <p>
+ * Besides the actions per second the benchmarks count the encoded bytes ({@code bytes}, in bytes per second). The
+ * bytes per action are {@code bytes} divided by the score and the allocations per action are reported by the GC
+ * profiler as {@code gc.alloc.rate.norm}.
+ *
+ * @author Hannes Illy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionCodecBenchmark {
+
+    /**
+     * The action, that is encoded and decoded.
+     */
+    @Param({"put", "newPlayer", "shortMessage", "longMessage", "exit", "newGame"})
+    public String action;
+
+    /**
+     * The action object of the current run.
+     */
+    private Action value;
+    /**
+     * The stream, to which the encoder writes. It is emptied before every action.
+     */
+    private ByteArrayOutputStream output;
+    /**
+     * The encoder of the actions.
+     */
+    private ActionOutputEncoder encoder;
+    /**
+     * The stream with the frame of the action, from which the decoder reads. It is reset before every action.
+     */
+    private ByteArrayInputStream input;
+    /**
+     * The decoder of the actions.
+     */
+    private ActionInputDecoder decoder;
+    /**
+     * The number of bytes of the encoded action.
+     */
+    private int size;
+
+    /**
+     * The number of encoded or decoded bytes.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        /**
+         * The number of bytes.
+         */
+        public long bytes;
+
+        /**
+         * Resets the counter before every iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0;
+        }
+    }
+
+    /**
+     * Creates the action, the streams, the encoder and the decoder.
+     */
+    @Setup
+    public void setup() {
+        switch (this.action) {
+            case "put":
+                this.value = new PutAction(3, 1);
+                break;
+            case "newPlayer":
+                this.value = new NewPlayerAction("Player 1");
+                break;
+            case "shortMessage":
+                this.value = new MessageAction("Player 1", "Player 2", "Viel Gl\u00fcck!");
+                break;
+            case "longMessage":
+                StringBuilder message = new StringBuilder();
+                while (message.length() < 4000) {
+                    message.append("Gewonnen hat, wer zuerst vier Steine in einer Reihe hat. ");
+                }
+                this.value = new MessageAction("Player 1", "Player 2", message.toString());
+                break;
+            case "exit":
+                this.value = new ExitAction("Player 1", ExitAction.PLAYER_EXIT);
+                break;
+            case "newGame":
+                this.value = new NewGameAction();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action. action = " + this.action);
+        }
+        this.output = new ByteArrayOutputStream();
+        this.encoder = new ActionOutputEncoder(this.output);
+        this.encoder.send(this.value);
+        byte[] encoded = this.output.toByteArray();
+        this.size = encoded.length;
+        this.input = new ByteArrayInputStream(encoded);
+        this.decoder = new ActionInputDecoder(this.input);
+    }
+
+    /**
+     * Encodes the action.
+     *
+     * @param counter The counter of the bytes.
+     */
+    @Benchmark
+    public void encode(Bytes counter) {
+        this.output.reset();
+        this.encoder.send(this.value);
+        counter.bytes += this.output.size();
+    }
+
+    /**
+     * Decodes the action: the length, the type byte and the data of the frame.
+     *
+     * @param counter The counter of the bytes.
+     * @return The decoded action.
+     * @throws IOException If the action cannot be read.
+     */
+    @Benchmark
+    public Action decode(Bytes counter) throws IOException {
+        this.input.reset();
+        counter.bytes += this.size;
+        return this.decoder.readFrame();
+    }
+}
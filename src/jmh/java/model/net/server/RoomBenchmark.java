@@ -0,0 +1,73 @@
+package model.net.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the rooms of the {@link RoomManager}. A room has no thread, so its overhead is the memory of the
+ * {@link ClientHandler} with its game and queues. The bytes per room are reported by the GC profiler as
+ * {@code gc.alloc.rate.norm} of {@link #createRoom()}; {@link #reuseRoom()} shows the costs of a closed room, that is
+ * prepared for the next game.
+ *
+ * @author Hannes Illy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomBenchmark {
+
+    /**
+     * The executor of the rooms. The rooms of the benchmarks receive no actions, so it is never used.
+     */
+    private final Executor executor = Runnable::run;
+    /**
+     * The room, that is reused.
+     */
+    private ClientHandler room;
+
+    /**
+     * Creates the closed room, that is reused.
+     */
+    @Setup
+    public void setup() {
+        this.room = new ClientHandler(this.executor, handler -> {
+        });
+        this.room.close();
+    }
+
+    /**
+     * Creates a room.
+     *
+     * @return The room.
+     */
+    @Benchmark
+    public ClientHandler createRoom() {
+        return new ClientHandler(this.executor, handler -> {
+        });
+    }
+
+    /**
+     * Prepares the closed room for a new game.
+     *
+     * @return The room.
+     */
+    @Benchmark
+    public ClientHandler reuseRoom() {
+        this.room.reset();
+        return this.room;
+    }
+}
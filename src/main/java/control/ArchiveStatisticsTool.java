@@ -0,0 +1,41 @@
+package control;
+
+import model.VierGewinnt;
+import model.record.ArchiveStatistics;
+import model.record.GameArchive;
+import model.record.GameRecord;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Prints the {@link ArchiveStatistics} of the games in an archive. If a number of games is given, that many games with
+ * random moves on the default board are appended to the archive before.
+ * <p>
+ * Usage: {@code ArchiveStatisticsTool [directory] [threads] [games]}
+ *
+ * @author Hannes Illy
+ */
+public class ArchiveStatisticsTool {
+
+    public static void main(String[] args) throws IOException {
+        String directory = args.length > 0 ? args[0] : "archive";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long games = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        try (GameArchive archive = GameArchive.open(Paths.get(directory))) {
+            Random random = new Random();
+            VierGewinnt game = new VierGewinnt();
+            for (long i = 0; i < games; i++) {
+                game.reset();
+                while (!game.hasEnded()) {
+                    game.placePiece(random.nextInt(game.getColumns()));
+                }
+                long time = System.currentTimeMillis();
+                archive.append(GameRecord.of(game, "random", "random", time, time));
+            }
+            System.out.println(ArchiveStatistics.compute(archive, threads));
+        }
+    }
+}
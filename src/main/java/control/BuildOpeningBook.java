@@ -0,0 +1,47 @@
+package control;
+
+import model.ai.OpeningBook;
+import model.ai.OpeningBookBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Creates an opening book for the default board with the {@link OpeningBookBuilder} and prints the progress. The book
+ * can be loaded with {@link OpeningBook#open(Path)}.
+ * <p>
+ * Usage: {@code BuildOpeningBook [file] [maxMoves] [threads] [tableSize]}
+ *
+ * @author Hannes Illy
+ */
+public class BuildOpeningBook {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "openingbook.bin");
+        int maxMoves = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int tableSize = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(6, 7, maxMoves).setThreads(threads).setTableSize(tableSize);
+        Thread progress = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(10000);
+                    System.out.println(builder.getSolvedCount() + " positions solved");
+                }
+            } catch (InterruptedException e) {
+                // the book is finished
+            }
+        });
+        progress.setDaemon(true);
+        progress.start();
+
+        long start = System.nanoTime();
+        int count = builder.build(file);
+        progress.interrupt();
+        progress.join();
+        System.out.printf("%d positions with up to %d moves written to %s in %.1f s%n",
+                count, maxMoves, file, (System.nanoTime() - start) / 1e9);
+    }
+}
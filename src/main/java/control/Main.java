@@ -94,7 +94,7 @@ public class Main {
         System.out.println("Spiel wird beigetreten");
         try {
             Client client = new Client(ipAddress, name, e -> System.out.println(""));
-            new Thread(client).start();
+            ConnectionThreads.start(client, "Client");
         } catch (UnknownHostException e) {
             System.out.println("Der Host " + ipAddress + " ist leider nicht korrekt.");
             // e.printStackTrace();
@@ -0,0 +1,35 @@
+package control;
+
+import model.VierGewinnt;
+import model.ai.MonteCarloTreeSearch;
+
+/**
+ * Measures the playouts per second of the {@link MonteCarloTreeSearch} on an empty board with 1, 2, 4, ... up to the
+ * given number of threads.
+ * <p>
+ * Usage: {@code MonteCarloBenchmark [threads] [columns] [rows] [milliseconds]}
+ *
+ * @author Hannes Illy
+ */
+public class MonteCarloBenchmark {
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        long time = args.length > 3 ? Long.parseLong(args[3]) : 2000;
+
+        VierGewinnt game = new VierGewinnt(columns, rows);
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            MonteCarloTreeSearch search = new MonteCarloTreeSearch(threads);
+            int column = search.search(game, Long.MAX_VALUE, time);
+            System.out.printf("%d threads: %d playouts, %.0f playouts/s, best move %d (%.1f %% of the visits)%n",
+                    threads, search.getPlayoutCount(), search.getPlayoutsPerSecond(), column,
+                    100.0 * search.getVisits(column) / search.getPlayoutCount());
+            search.close();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package control;
+
+import model.BitBoard;
+import model.Board;
+import model.Perft;
+import model.PerftResult;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Prints the {@link Perft} counts of every depth up to the given one. The board implementation is {@code board} (the
+ * field array), {@code bitboard} or {@code auto} (the fastest one for the size). The start moves are given as columns
+ * separated by commas, e.g. {@code 3,3,4}. With 1 thread the count runs without fork-join pool and with 0 hash bits
+ * without hash table.
+ * <p>
+ * Usage: {@code PerftTool [depth] [columns] [rows] [threads] [hashBits] [implementation] [moves]}
+ *
+ * @author Hannes Illy
+ */
+public class PerftTool {
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int hashBits = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        String implementation = args.length > 5 ? args[5] : "auto";
+        int[] moves = args.length > 6 && !args[6].isEmpty()
+                ? Arrays.stream(args[6].split(",")).mapToInt(Integer::parseInt).toArray() : new int[0];
+
+        Supplier<Board> boardFactory;
+        switch (implementation) {
+            case "board":
+                boardFactory = () -> new Board(rows, columns);
+                break;
+            case "bitboard":
+                boardFactory = () -> new BitBoard(rows, columns);
+                break;
+            case "auto":
+                boardFactory = () -> Board.create(rows, columns);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown board implementation. implementation = " + implementation);
+        }
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        for (int d = 1; d <= depth; d++) {
+            // a new hash table for every depth, so every count starts without stored positions
+            Perft perft = new Perft(boardFactory).setHashTable(hashBits);
+            PerftResult result = pool != null ? perft.countParallel(moves, d, pool) : perft.count(moves, d);
+            System.out.printf("depth %2d: %,d sequences, wins %,d / %,d, draws %,d, %,d positions in %.1f ms "
+                            + "(%.0f positions/s)%n",
+                    d, result.getNodes(), result.getWins(1), result.getWins(2), result.getDraws(),
+                    result.getVisitedNodes(), result.getElapsedTime() / 1e6, result.getNodesPerSecond());
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
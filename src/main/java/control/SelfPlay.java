@@ -0,0 +1,60 @@
+package control;
+
+import model.ai.MoveStrategy;
+import model.ai.SelfPlayResult;
+import model.ai.SelfPlayRunner;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.IntFunction;
+
+/**
+ * Plays many games on the default board with the {@link SelfPlayRunner} and prints the results. The strategies are
+ * {@code random} or {@code greedy} (see {@link MoveStrategy}). If a file is given, the moves of all games are written
+ * to it.
+ * <p>
+ * Usage: {@code SelfPlay [games] [player1] [player2] [threads] [file]}
+ *
+ * @author Hannes Illy
+ */
+public class SelfPlay {
+
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        IntFunction<MoveStrategy> player1 = strategy(args.length > 1 ? args[1] : "random", 1);
+        IntFunction<MoveStrategy> player2 = strategy(args.length > 2 ? args[2] : "random", 2);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SelfPlayRunner runner = new SelfPlayRunner(7, 6, threads, player1, player2);
+        SelfPlayResult result;
+        if (args.length > 4) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(args[4])))) {
+                result = runner.run(games, out);
+            }
+        } else {
+            result = runner.run(games);
+        }
+        System.out.println(result);
+    }
+
+    /**
+     * Returns a factory for the strategy with the given name. Every thread gets a different seed.
+     *
+     * @param name   The name of the strategy.
+     * @param player The number of the player.
+     * @return The factory of the strategy.
+     */
+    private static IntFunction<MoveStrategy> strategy(String name, int player) {
+        switch (name) {
+            case "random":
+                return thread -> MoveStrategy.random(System.nanoTime() + 31L * thread + player);
+            case "greedy":
+                return thread -> MoveStrategy.greedy(System.nanoTime() + 31L * thread + player);
+            default:
+                throw new IllegalArgumentException("Unknown strategy. name = " + name);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package control;
+
+import model.VierGewinnt;
+import model.ai.ParallelSolver;
+import model.ai.Solver;
+import model.ai.TranspositionTable;
+
+import java.util.Random;
+
+/**
+ * Compares the single-threaded {@link Solver} with the {@link ParallelSolver} on random positions of the default board.
+ * Prints the speedup and the visited positions per second of every thread and checks that both solvers compute the
+ * same scores.
+ * <p>
+ * Usage: {@code SolverBenchmark [threads] [moves] [positions] [seed]}
+ *
+ * @author Hannes Illy
+ */
+public class SolverBenchmark {
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        Random random = new Random(seed);
+        ParallelSolver parallelSolver = new ParallelSolver(threads,
+                new TranspositionTable(ParallelSolver.DEFAULT_TABLE_SIZE));
+        long singleTime = 0;
+        long parallelTime = 0;
+
+        for (int i = 0; i < positions; i++) {
+            VierGewinnt game = randomGame(random, moves);
+
+            // a new table for every position, so that both solvers start without results
+            Solver solver = new Solver(new TranspositionTable(ParallelSolver.DEFAULT_TABLE_SIZE));
+            long start = System.nanoTime();
+            int score = solver.solve(game);
+            long time = System.nanoTime() - start;
+            singleTime += time;
+
+            parallelSolver.getTable().clear();
+            int parallelScore = parallelSolver.solve(game);
+            parallelTime += parallelSolver.getElapsedTime();
+
+            System.out.printf("position %d: score %d, single %.1f ms (%.0f nodes/s), parallel %.1f ms, speedup %.2f%n",
+                    i, score, time / 1e6, solver.getNodeCount() * 1e9 / time,
+                    parallelSolver.getElapsedTime() / 1e6, (double) time / parallelSolver.getElapsedTime());
+            for (int t = 0; t < threads; t++) {
+                System.out.printf("    thread %d: %d nodes, %.0f nodes/s%n",
+                        t, parallelSolver.getNodeCount(t), parallelSolver.getNodesPerSecond(t));
+            }
+            if (score != parallelScore) {
+                System.out.println("ERROR: the parallel score " + parallelScore + " does not match the score " + score);
+            }
+        }
+        System.out.printf("total: single %.1f ms, parallel %.1f ms with %d threads, speedup %.2f%n",
+                singleTime / 1e6, parallelTime / 1e6, threads, (double) singleTime / parallelTime);
+        parallelSolver.close();
+    }
+
+    /**
+     * Creates a game with the given number of random moves, which has not ended.
+     *
+     * @param random The random number generator.
+     * @param moves  The number of moves.
+     * @return The game.
+     */
+    private static VierGewinnt randomGame(Random random, int moves) {
+        VierGewinnt game = new VierGewinnt();
+        while (game.getMoveCount() < moves) {
+            game.placePiece(random.nextInt(game.getColumns()));
+            if (game.hasEnded()) {
+                game = new VierGewinnt();
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,198 @@
+package model;
+
+/**
+ * A {@link Board} that stores the pieces of each player in a single {@code long}. The fields are numbered column by
+ * column from the bottom, and every column has one additional (always empty) guard bit on top, so that lines of pieces
+ * can be found with a few shift and mask operations without wrapping around to the next column.
+ * <p>
+ * Bit {@code column * (rows + 1) + row} represents the field at the given column and row, so the board can only be used
+ * if {@code columns * (rows + 1) <= 64}. Use {@link Board#create(int, int)} to choose the right board for a given size.
+ *
+ * @author Hannes Illy
+ */
+public class BitBoard extends Board {
+    /**
+     * The pieces of both players: index 0 = player1, index 1 = player2.
+     */
+    private final long[] pieces = new long[2];
+    /**
+     * All pieces on the board (the union of both players' pieces).
+     */
+    private long mask = 0L;
+    /**
+     * The number of bits used by one column (rows + guard bit).
+     */
+    private final int columnHeight;
+    /**
+     * A mask with the bottom field of every column set.
+     */
+    private final long bottomMask;
+    /**
+     * A mask with every field of the board set (without guard bits).
+     */
+    private final long boardMask;
+
+    /**
+     * Creates a new empty bit board with the given size.
+     *
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @throws IllegalArgumentException if the board does not fit into a {@code long}
+     */
+    public BitBoard(int rows, int columns) {
+        super(rows, columns, false);
+        if (!fits(rows, columns)) {
+            throw new IllegalArgumentException("The board is too large for a bit board. size = " + columns + "x" + rows);
+        }
+        this.columnHeight = rows + 1;
+
+        long bottom = 0L;
+        for (int c = 0; c < columns; c++) {
+            bottom |= 1L << (c * this.columnHeight);
+        }
+        this.bottomMask = bottom;
+        // (1 << rows) - 1 in every column
+        this.boardMask = bottom * ((1L << rows) - 1);
+    }
+
+    /**
+     * Creates a new empty bit board in default size (7 cols, 6 rows).
+     */
+    public BitBoard() {
+        this(6, 7);
+    }
+
+    /**
+     * Checks whether a board of the given size can be stored in a bit board.
+     *
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return {@code true} if the board including the guard bits fits into a {@code long}
+     */
+    public static boolean fits(int rows, int columns) {
+        return rows > 0 && columns > 0 && columns * (rows + 1) <= Long.SIZE;
+    }
+
+    /**
+     * Returns the bit of the given field.
+     *
+     * @param column the column of the field
+     * @param row    the row of the field
+     * @return the bit, which represents the field
+     */
+    private long bit(int column, int row) {
+        return 1L << (column * this.columnHeight + row);
+    }
+
+    @Override
+    public boolean placePiece(int column, int piece) {
+        // only allow valid pieces (1 and 2).
+        if ((piece != 1 && piece != 2) || !this.canPlacePiece(column)) {
+            return false;
+        }
+        this.updateKeys(column, this.heights[column], piece);
+        long move = this.bit(column, this.heights[column]++);
+        this.pieces[piece - 1] |= move;
+        this.mask |= move;
+        this.moveCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removePiece(int column) {
+        if (column >= 0 && column < this.getColumns() && this.heights[column] > 0) {
+            int row = --this.heights[column];
+            long move = this.bit(column, row);
+            this.updateKeys(column, row, (this.pieces[0] & move) != 0 ? 1 : 2);
+            this.pieces[0] &= ~move;
+            this.pieces[1] &= ~move;
+            this.mask &= ~move;
+            this.moveCount--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a mask with the field set, where the next piece of each column would land. Full columns have no bit set.
+     *
+     * @return the playable fields as bit mask
+     */
+    public long getPlayableMask() {
+        return (this.mask + this.bottomMask) & this.boardMask;
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.mask == this.boardMask;
+    }
+
+    @Override
+    public int getField(int column, int row) {
+        if (this.areValidCoordinates(column, row)) {
+            long field = this.bit(column, row);
+            if ((this.pieces[0] & field) != 0) {
+                return 1;
+            } else if ((this.pieces[1] & field) != 0) {
+                return 2;
+            }
+            return 0;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isWinningPiece(int column, int row) {
+        int piece = this.getField(column, row);
+        if (piece != 1 && piece != 2) {
+            return false;
+        }
+        return this.isInLine(this.pieces[piece - 1], this.bit(column, row));
+    }
+
+    @Override
+    public boolean isWinningMove(int column, int piece) {
+        if ((piece != 1 && piece != 2) || !this.canPlacePiece(column)) {
+            return false;
+        }
+        long move = this.bit(column, this.heights[column]);
+        return this.isInLine(this.pieces[piece - 1] | move, move);
+    }
+
+    /**
+     * Checks whether the given field is part of four pieces in a row. Each direction is checked by shifting the pieces
+     * onto themselves: after two steps only the lowest field of every four-in-a-row remains, from which all four fields
+     * are recovered to test the given field.
+     *
+     * @param pieces the pieces of one player
+     * @param field  the bit of the field that is checked
+     * @return whether the field is part of four in a row
+     */
+    private boolean isInLine(long pieces, long field) {
+        return this.isInLine(pieces, field, 1) // vertical
+                || this.isInLine(pieces, field, this.columnHeight) // horizontal
+                || this.isInLine(pieces, field, this.columnHeight - 1) // diagonal \
+                || this.isInLine(pieces, field, this.columnHeight + 1); // diagonal /
+    }
+
+    /**
+     * Checks whether the given field is part of four pieces in a row in one direction.
+     *
+     * @param pieces the pieces of one player
+     * @param field  the bit of the field that is checked
+     * @param shift  the distance of two neighbouring fields in this direction
+     * @return whether the field is part of four in a row in this direction
+     */
+    private boolean isInLine(long pieces, long field, int shift) {
+        if (3 * shift >= Long.SIZE) {
+            // four fields in this direction do not fit into the board and the shift distances would wrap around
+            return false;
+        }
+        long pairs = pieces & (pieces >>> shift);
+        long fours = pairs & (pairs >>> (2 * shift));
+        if (fours == 0) {
+            return false;
+        }
+        return (fours & (field | field >>> shift | field >>> (2 * shift) | field >>> (3 * shift))) != 0;
+    }
+}
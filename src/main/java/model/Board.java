@@ -1,13 +1,61 @@
 package model;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * A board on which different pieces can be placed. The pieces can be put into a column, where they fall down to the last empty field. This board can be use for a game of Four-in-a-row.
  */
 public class Board {
     /**
-     * the board where the pieces are placed: 0 = empty, 1 = player1, 2 = player2
+     * The column steps of the four line directions: horizontal, vertical, diagonal /, diagonal \.
+     */
+    private static final int[] DX = {1, 0, 1, 1};
+    /**
+     * The row steps of the four line directions: horizontal, vertical, diagonal /, diagonal \.
      */
-    private int[][] board;
+    private static final int[] DY = {0, 1, 1, -1};
+    /**
+     * The line tables of all board sizes that were used so far. Boards of the same size share their table.
+     */
+    private static final Map<Long, byte[]> LINE_TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * the number of rows of this board
+     */
+    private final int rows;
+    /**
+     * the number of columns of this board
+     */
+    private final int columns;
+    /**
+     * the board where the pieces are placed: 0 = empty, 1 = player1, 2 = player2. Is {@code null} if a subclass
+     * stores the pieces itself.
+     */
+    private final int[][] board;
+    /**
+     * the number of pieces in each column, which is also the row where the next piece of the column lands
+     */
+    protected final int[] heights;
+    /**
+     * the number of pieces on the board
+     */
+    protected int moveCount = 0;
+    /**
+     * the Zobrist key of the position: the xor of {@code zobristKey(column, row, piece)} of every piece on the board
+     */
+    protected long positionKey = 0L;
+    /**
+     * the Zobrist key of the mirror image of the position, where column {@code c} is swapped with column
+     * {@code columns - 1 - c}
+     */
+    protected long mirrorKey = 0L;
+    /**
+     * For every field, direction and side the number of fields (at most 3) until the edge of the board. The entry of
+     * field (column, row), direction d and side s is at index {@code ((column * rows + row) * 4 + d) * 2 + s}. Is only
+     * created for boards that use the field array.
+     */
+    private final byte[] lineTable;
 
     /**
      * Creates a new board for the game "Four-in-a-row". There are two different pieces/colours and pieces can only be
@@ -17,7 +65,23 @@ public class Board {
      * @param columns the number of columns
      */
     public Board(int rows, int columns) {
-        this.board = new int[columns][rows];
+        this(rows, columns, true);
+    }
+
+    /**
+     * Creates a new board with the given size. If {@code createFields} is {@code false}, the field array is not
+     * created and the subclass has to override every method that reads or changes the pieces.
+     *
+     * @param rows         the number of rows
+     * @param columns      the number of columns
+     * @param createFields if the field array should be created
+     */
+    protected Board(int rows, int columns, boolean createFields) {
+        this.rows = rows;
+        this.columns = columns;
+        this.board = createFields ? new int[columns][rows] : null;
+        this.heights = new int[columns];
+        this.lineTable = createFields ? lineTable(rows, columns) : null;
     }
 
     /**
@@ -29,13 +93,28 @@ public class Board {
         this(6, 7);
     }
 
+    /**
+     * Creates the fastest board implementation for the given size. Boards that fit into a {@code long} (including one
+     * guard bit per column) are stored as a {@link BitBoard}, all other boards use the field array.
+     *
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return a new empty board with the given size
+     */
+    public static Board create(int rows, int columns) {
+        if (BitBoard.fits(rows, columns)) {
+            return new BitBoard(rows, columns);
+        }
+        return new Board(rows, columns);
+    }
+
     /**
      * Returns the board's number of rows.
      *
      * @return the number of rows
      */
     public int getRows() {
-        return this.board[0].length;
+        return this.rows;
     }
 
     /**
@@ -44,7 +123,98 @@ public class Board {
      * @return the number of columns
      */
     public int getColumns() {
-        return this.board.length;
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of pieces in the given column.
+     *
+     * @param column the column
+     * @return the height of the column or {@code -1} if the column is invalid
+     */
+    public int getHeight(int column) {
+        if (column >= 0 && column < this.getColumns()) {
+            return this.heights[column];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of pieces in every column. The returned array is the board's own height index, so that search
+     * code can read it without copying. It must not be modified.
+     *
+     * @return the heights of all columns
+     */
+    public int[] getHeights() {
+        return this.heights;
+    }
+
+    /**
+     * Returns the number of pieces on the board.
+     *
+     * @return the number of placed pieces
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of the current position. The key is updated with every placed or removed piece and
+     * only depends on the pieces on the board, so equal positions always have the same key, also across different
+     * board implementations and program runs.
+     *
+     * @return the key of the position
+     */
+    public long getPositionKey() {
+        return this.positionKey;
+    }
+
+    /**
+     * Returns the Zobrist key of the mirror image of the current position, which is the position with the columns in
+     * reverse order. The key is updated together with the position key.
+     *
+     * @return the key of the mirrored position
+     */
+    public long getMirrorKey() {
+        return this.mirrorKey;
+    }
+
+    /**
+     * Returns the canonical key of the current position: the smaller one of the position key and the mirror key. A
+     * position and its mirror image have the same value, so caches can use this key to store both only once.
+     *
+     * @return the canonical key of the position
+     */
+    public long getCanonicalKey() {
+        return Math.min(this.positionKey, this.mirrorKey);
+    }
+
+    /**
+     * Returns the Zobrist key of a single piece on the given field. The key is computed with the SplitMix64 function
+     * instead of a random table, so it does not depend on the board size and is the same in every program run.
+     *
+     * @param column the column of the piece
+     * @param row    the row of the piece
+     * @param piece  the piece (1 or 2)
+     * @return the key of the piece
+     */
+    public static long zobristKey(int column, int row, int piece) {
+        long z = (((long) column << 32) | ((long) row << 2) | piece) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Adds or removes a piece on the given field to or from the position key and the mirror key.
+     *
+     * @param column the column of the piece
+     * @param row    the row of the piece
+     * @param piece  the piece (1 or 2)
+     */
+    protected void updateKeys(int column, int row, int piece) {
+        this.positionKey ^= zobristKey(column, row, piece);
+        this.mirrorKey ^= zobristKey(this.columns - 1 - column, row, piece);
     }
 
     /**
@@ -54,7 +224,7 @@ public class Board {
      * @param row    the coordinate for the row
      * @return if the coordinates are valid
      */
-    private boolean areValidCoordinates(int column, int row) {
+    protected boolean areValidCoordinates(int column, int row) {
         if (column >= 0 && column < this.getColumns() && row >= 0 && row < this.getRows()) {
             return true;
         }
@@ -74,30 +244,50 @@ public class Board {
         if (piece != 1 && piece != 2) {
             return false;
         }
-        if (column >= 0 && column < this.getColumns()) {
-            // Iterate through column and place piece at the end (if possible).
-            for (int i = 0; i < this.board[column].length; i++) {
-                if (this.board[column][i] == 0) {
-                    this.board[column][i] = piece;
-                    return true;
-                }
-            }
+        if (this.canPlacePiece(column)) {
+            // place the piece on top of the column
+            this.updateKeys(column, this.heights[column], piece);
+            this.board[column][this.heights[column]++] = piece;
+            this.moveCount++;
+            return true;
         }
         return false;
     }
 
+    /**
+     * Removes the top piece of the given column. This reverts the last {@code placePiece} call for this column.
+     *
+     * @param column the column, from which the piece is removed
+     * @return if a piece could be removed
+     */
+    public boolean removePiece(int column) {
+        if (column >= 0 && column < this.getColumns() && this.heights[column] > 0) {
+            int row = --this.heights[column];
+            this.updateKeys(column, row, this.board[column][row]);
+            this.board[column][row] = 0;
+            this.moveCount--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if another piece can be placed in the given column.
+     *
+     * @param column the column
+     * @return {@code true} if the column is valid and not yet full, {@code false} otherwise
+     */
+    public boolean canPlacePiece(int column) {
+        return column >= 0 && column < this.getColumns() && this.heights[column] < this.getRows();
+    }
+
     /**
      * Checks if the board is full.
      *
      * @return {@code true} if the board is full, {@code false} otherwise.
      */
     public boolean isFull() {
-        for (int i = 0; i < this.board.length; i++) {
-            if (this.board[i][this.board[i].length - 1] == 0) {
-                return false;
-            }
-        }
-        return true;
+        return this.moveCount == this.getRows() * this.getColumns();
     }
 
     /**
@@ -121,17 +311,155 @@ public class Board {
      * @return the row of the last piece or {@code -1} if there is no piece or the column is invalid
      */
     public int getLastPiecePosition(int column) {
-        int lastPosition = -1;
         if (column >= 0 && column < this.getColumns()) {
-            for (int i = 0; i < this.board[column].length; i++) {
-                if (this.board[column][i] != 0) {
-                    lastPosition = i;
-                } else {
-                    return lastPosition;
+            return this.heights[column] - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if the piece on the given field is part of a winning combination (four in a row). Empty or invalid fields
+     * are never part of a winning combination.
+     *
+     * @param column the column of the piece
+     * @param row    the row of the piece
+     * @return whether the piece is part of a winning combination
+     */
+    public boolean isWinningPiece(int column, int row) {
+        int piece = this.getField(column, row);
+        if (piece != 1 && piece != 2) {
+            return false;
+        }
+        int index = (column * this.getRows() + row) * 8;
+        for (int d = 0; d < DX.length; d++) {
+            if (this.countLine(column, row, d, index + d * 2, piece) >= 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if placing the given piece in the given column would win, without changing the board.
+     *
+     * @param column the column, in which the piece would be placed
+     * @param piece  the piece that would be placed
+     * @return if the piece can be placed and would be part of four in a row
+     */
+    public boolean isWinningMove(int column, int piece) {
+        if (!this.placePiece(column, piece)) {
+            return false;
+        }
+        boolean win = this.isWinningPiece(column, this.heights[column] - 1);
+        this.removePiece(column);
+        return win;
+    }
+
+    /**
+     * Counts the pieces in a row through the given field in both directions of the given line. The line table limits
+     * the search to the fields on the board, so no coordinates have to be checked.
+     *
+     * @param column    the column of the piece
+     * @param row       the row of the piece
+     * @param direction the direction of the line (index of {@code DX} and {@code DY})
+     * @param index     the index of the first side of this field and direction in the line table
+     * @param piece     the piece that is counted
+     * @return the number of connected pieces on this line (at most 7), including the given field
+     */
+    private int countLine(int column, int row, int direction, int index, int piece) {
+        int dx = DX[direction];
+        int dy = DY[direction];
+        int count = 1;
+        int reach = this.lineTable[index];
+        for (int i = 1; i <= reach && this.board[column + i * dx][row + i * dy] == piece; i++) {
+            count++;
+        }
+        reach = this.lineTable[index + 1];
+        for (int i = 1; i <= reach && this.board[column - i * dx][row - i * dy] == piece; i++) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the line table for boards of the given size. The table is only computed once per size.
+     *
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return the shared line table
+     */
+    private static byte[] lineTable(int rows, int columns) {
+        return LINE_TABLES.computeIfAbsent(((long) rows << 32) | columns, key -> {
+            byte[] table = new byte[columns * rows * 8];
+            for (int c = 0; c < columns; c++) {
+                for (int r = 0; r < rows; r++) {
+                    for (int d = 0; d < DX.length; d++) {
+                        int index = ((c * rows + r) * 4 + d) * 2;
+                        table[index] = (byte) reach(c, r, DX[d], DY[d], rows, columns);
+                        table[index + 1] = (byte) reach(c, r, -DX[d], -DY[d], rows, columns);
+                    }
+                }
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Counts the fields (at most 3) from the given field in the given direction until the edge of the board.
+     *
+     * @param column  the column of the field
+     * @param row     the row of the field
+     * @param dx      the column step
+     * @param dy      the row step
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return the number of reachable fields
+     */
+    private static int reach(int column, int row, int dx, int dy, int rows, int columns) {
+        int steps = 0;
+        while (steps < 3) {
+            int c = column + (steps + 1) * dx;
+            int r = row + (steps + 1) * dy;
+            if (c < 0 || c >= columns || r < 0 || r >= rows) {
+                break;
+            }
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Compares the position of this board with another board. Two boards are equal, if they have the same size and the
+     * same pieces on every field, regardless of their implementation. Boards are mutable, so a board must not be
+     * changed while it is used as key of a hash based collection.
+     *
+     * @param o the object that is compared
+     * @return if the object is a board with the same position
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Board)) return false;
+        Board that = (Board) o;
+        if (this.positionKey != that.positionKey || this.moveCount != that.moveCount
+                || this.getRows() != that.getRows() || this.getColumns() != that.getColumns()) {
+            return false;
+        }
+        for (int c = 0; c < this.getColumns(); c++) {
+            if (this.heights[c] != that.heights[c]) {
+                return false;
+            }
+            for (int r = 0; r < this.heights[c]; r++) {
+                if (this.getField(c, r) != that.getField(c, r)) {
+                    return false;
                 }
             }
-            return lastPosition;
         }
-        return -1;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.positionKey);
     }
 }
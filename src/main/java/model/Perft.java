@@ -0,0 +1,324 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Counts all legal move sequences up to a given depth (perft), together with the games, that end within the depth.
+ * The counts only depend on the rules, so they can be used to check a new board implementation against the
+ * {@link Board} and the number of visited positions per second measures the speed of the board.
+ * <p>
+ * The count can run on one thread or on a fork-join pool, where the first moves are counted in parallel. Optionally,
+ * the counts of positions are stored in a hash table with the canonical key of the position (see
+ * {@link Board#getCanonicalKey()}), so positions, that are reached by different move orders or are mirror images of
+ * each other, are only counted once. The hash table is shared by all threads.
+ *
+ * @author Hannes Illy
+ */
+public class Perft {
+    /**
+     * The number of plies from the start, that are split into parallel tasks.
+     */
+    private static final int SPLIT_PLIES = 3;
+    /**
+     * The minimum remaining depth of a task, that is split into smaller tasks.
+     */
+    private static final int SPLIT_DEPTH = 5;
+    /**
+     * The index of the draws in the count array. The wins of player 1 and 2 are at index 1 and 2.
+     */
+    private static final int DRAWS = 0;
+    /**
+     * The index of the number of sequences with the full depth in the count array.
+     */
+    private static final int NODES = 3;
+    /**
+     * The index of the number of visited positions in the count array.
+     */
+    private static final int VISITED = 4;
+
+    /**
+     * Creates the empty boards, on which the sequences are played.
+     */
+    private final Supplier<? extends Board> boardFactory;
+    /**
+     * The counts of visited positions or {@code null} if positions are not stored.
+     */
+    private AtomicReferenceArray<Entry> table = null;
+
+    /**
+     * Creates a perft counter for boards of the given size, which uses the fastest board implementation.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    public Perft(int rows, int columns) {
+        this(() -> Board.create(rows, columns));
+    }
+
+    /**
+     * Creates a perft counter, that plays on the boards of the given factory, e.g. {@code () -> new Board(6, 7)}.
+     *
+     * @param boardFactory Creates empty boards of the same size.
+     */
+    public Perft(Supplier<? extends Board> boardFactory) {
+        this.boardFactory = boardFactory;
+    }
+
+    /**
+     * Enables or disables the hash table, that stores the counts of positions.
+     *
+     * @param bits The hash table has {@code 2^bits} entries or is disabled, if {@code bits} is 0.
+     * @return This perft counter.
+     * @throws IllegalArgumentException If the number of bits is not between 0 and 30.
+     */
+    public Perft setHashTable(int bits) {
+        if (bits < 0 || bits > 30) {
+            throw new IllegalArgumentException("Illegal size of the hash table. bits = " + bits);
+        }
+        this.table = bits == 0 ? null : new AtomicReferenceArray<>(1 << bits);
+        return this;
+    }
+
+    /**
+     * Counts all move sequences of the given depth after the given moves on one thread.
+     *
+     * @param start The columns of the moves, after which the sequences are counted.
+     * @param depth The number of moves of the sequences.
+     * @return The counts.
+     * @throws IllegalArgumentException If the start moves are illegal or the game has ended after them.
+     */
+    public PerftResult count(int[] start, int depth) {
+        long startTime = System.nanoTime();
+        Board board = this.createBoard(start);
+        long[] counts = new long[5];
+        this.count(board, start.length % 2 + 1, depth, counts);
+        return this.toResult(counts, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Counts all move sequences of the given depth after the given moves on the given fork-join pool.
+     *
+     * @param start The columns of the moves, after which the sequences are counted.
+     * @param depth The number of moves of the sequences.
+     * @param pool  The pool, that runs the tasks.
+     * @return The counts.
+     * @throws IllegalArgumentException If the start moves are illegal or the game has ended after them.
+     */
+    public PerftResult countParallel(int[] start, int depth, ForkJoinPool pool) {
+        long startTime = System.nanoTime();
+        this.createBoard(start);
+        long[] counts = pool.invoke(new PerftTask(start, start.length, depth));
+        return this.toResult(counts, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Creates a board with the given moves.
+     *
+     * @param moves The columns of the moves.
+     * @return The board.
+     * @throws IllegalArgumentException If a move is illegal or the game ended with one of the moves.
+     */
+    private Board createBoard(int[] moves) {
+        Board board = this.boardFactory.get();
+        for (int i = 0; i < moves.length; i++) {
+            int piece = i % 2 + 1;
+            if (!board.canPlacePiece(moves[i]) || board.isWinningMove(moves[i], piece)) {
+                throw new IllegalArgumentException("Illegal start moves. moves = " + Arrays.toString(moves));
+            }
+            board.placePiece(moves[i], piece);
+        }
+        if (board.isFull()) {
+            throw new IllegalArgumentException("The board is full. moves = " + Arrays.toString(moves));
+        }
+        return board;
+    }
+
+    /**
+     * Counts the move sequences of the given depth in the given position and adds them to the counts.
+     *
+     * @param board  The position, which has not ended. It is restored before the method returns.
+     * @param piece  The piece of the player to move.
+     * @param depth  The remaining number of moves.
+     * @param counts The counts, indexed by {@link #DRAWS}, the winning piece, {@link #NODES} and {@link #VISITED}.
+     */
+    private void count(Board board, int piece, int depth, long[] counts) {
+        if (depth == 0) {
+            counts[NODES]++;
+            return;
+        }
+        AtomicReferenceArray<Entry> table = this.table;
+        long key = 0;
+        int index = 0;
+        if (table != null && depth > 1) {
+            key = board.getCanonicalKey();
+            index = (int) ((key ^ depth * 0x9E3779B97F4A7C15L) >>> 1) & (table.length() - 1);
+            Entry entry = table.get(index);
+            if (entry != null && entry.key == key && entry.depth == depth) {
+                for (int i = 0; i < VISITED; i++) {
+                    counts[i] += entry.counts[i];
+                }
+                return;
+            }
+        }
+        long[] before = table != null && depth > 1 ? Arrays.copyOf(counts, VISITED) : null;
+
+        counts[VISITED]++;
+        int fields = board.getRows() * board.getColumns();
+        for (int column = 0; column < board.getColumns(); column++) {
+            if (!board.canPlacePiece(column)) {
+                continue;
+            }
+            if (board.isWinningMove(column, piece)) {
+                counts[piece]++;
+                if (depth == 1) {
+                    counts[NODES]++;
+                }
+            } else if (board.getMoveCount() + 1 == fields) {
+                counts[DRAWS]++;
+                if (depth == 1) {
+                    counts[NODES]++;
+                }
+            } else if (depth == 1) {
+                counts[NODES]++;
+            } else {
+                board.placePiece(column, piece);
+                this.count(board, 3 - piece, depth - 1, counts);
+                board.removePiece(column);
+            }
+        }
+
+        if (before != null) {
+            long[] subtree = new long[VISITED];
+            for (int i = 0; i < VISITED; i++) {
+                subtree[i] = counts[i] - before[i];
+            }
+            table.set(index, new Entry(key, depth, subtree));
+        }
+    }
+
+    /**
+     * Creates the result from the counts.
+     *
+     * @param counts      The counts.
+     * @param elapsedTime The duration in nanoseconds.
+     * @return The result.
+     */
+    private PerftResult toResult(long[] counts, long elapsedTime) {
+        return new PerftResult(counts[NODES], counts[1], counts[2], counts[DRAWS], counts[VISITED], elapsedTime);
+    }
+
+    /**
+     * The counts of a position, that are stored in the hash table. Entries are immutable, so they can be replaced by
+     * other threads at any time.
+     */
+    private static final class Entry {
+        /**
+         * The canonical key of the position.
+         */
+        private final long key;
+        /**
+         * The depth of the counts.
+         */
+        private final int depth;
+        /**
+         * The counts without the visited positions.
+         */
+        private final long[] counts;
+
+        /**
+         * Creates an entry.
+         *
+         * @param key    The canonical key of the position.
+         * @param depth  The depth of the counts.
+         * @param counts The counts without the visited positions.
+         */
+        private Entry(long key, int depth, long[] counts) {
+            this.key = key;
+            this.depth = depth;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Counts the sequences after some moves. The first plies are split into one task per move.
+     */
+    private final class PerftTask extends RecursiveTask<long[]> {
+        /**
+         * The version of the serialized form of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The moves, that lead to the position of this task.
+         */
+        private final int[] moves;
+        /**
+         * The number of start moves of the count.
+         */
+        private final int startLength;
+        /**
+         * The remaining number of moves.
+         */
+        private final int depth;
+
+        /**
+         * Creates a task.
+         *
+         * @param moves       The moves, that lead to the position, which has not ended.
+         * @param startLength The number of start moves of the count.
+         * @param depth       The remaining number of moves.
+         */
+        private PerftTask(int[] moves, int startLength, int depth) {
+            this.moves = moves;
+            this.startLength = startLength;
+            this.depth = depth;
+        }
+
+        @Override
+        protected long[] compute() {
+            Board board = Perft.this.boardFactory.get();
+            for (int i = 0; i < this.moves.length; i++) {
+                board.placePiece(this.moves[i], i % 2 + 1);
+            }
+            int piece = this.moves.length % 2 + 1;
+            long[] counts = new long[5];
+            if (this.moves.length - this.startLength >= SPLIT_PLIES || this.depth < SPLIT_DEPTH) {
+                Perft.this.count(board, piece, this.depth, counts);
+                return counts;
+            }
+
+            // the same as count(), but the next positions are counted by subtasks
+            counts[VISITED]++;
+            int fields = board.getRows() * board.getColumns();
+            PerftTask[] tasks = new PerftTask[board.getColumns()];
+            for (int column = 0; column < board.getColumns(); column++) {
+                if (!board.canPlacePiece(column)) {
+                    continue;
+                }
+                if (board.isWinningMove(column, piece)) {
+                    counts[piece]++;
+                } else if (board.getMoveCount() + 1 == fields) {
+                    counts[DRAWS]++;
+                } else {
+                    int[] next = Arrays.copyOf(this.moves, this.moves.length + 1);
+                    next[this.moves.length] = column;
+                    tasks[column] = new PerftTask(next, this.startLength, this.depth - 1);
+                    tasks[column].fork();
+                }
+            }
+            for (PerftTask task : tasks) {
+                if (task != null) {
+                    long[] taskCounts = task.join();
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] += taskCounts[i];
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
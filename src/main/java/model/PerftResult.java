@@ -0,0 +1,134 @@
+package model;
+
+/**
+ * The result of a {@link Perft} count: the number of move sequences of the given depth, the number of games, that
+ * ended within the depth, by result and the number of visited positions.
+ *
+ * @author Hannes Illy
+ */
+public class PerftResult {
+    /**
+     * The number of move sequences with exactly the given depth.
+     */
+    private final long nodes;
+    /**
+     * The number of move sequences, that end with a win of player 1.
+     */
+    private final long wins1;
+    /**
+     * The number of move sequences, that end with a win of player 2.
+     */
+    private final long wins2;
+    /**
+     * The number of move sequences, that end with a draw.
+     */
+    private final long draws;
+    /**
+     * The number of positions, that were actually visited.
+     */
+    private final long visitedNodes;
+    /**
+     * The duration of the count in nanoseconds.
+     */
+    private final long elapsedTime;
+
+    /**
+     * Creates the result of a count.
+     *
+     * @param nodes        The number of move sequences with the given depth.
+     * @param wins1        The number of sequences, that end with a win of player 1.
+     * @param wins2        The number of sequences, that end with a win of player 2.
+     * @param draws        The number of sequences, that end with a draw.
+     * @param visitedNodes The number of visited positions.
+     * @param elapsedTime  The duration in nanoseconds.
+     */
+    public PerftResult(long nodes, long wins1, long wins2, long draws, long visitedNodes, long elapsedTime) {
+        this.nodes = nodes;
+        this.wins1 = wins1;
+        this.wins2 = wins2;
+        this.draws = draws;
+        this.visitedNodes = visitedNodes;
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Gets the number of legal move sequences with exactly the given depth. Games end with a win or a draw, so
+     * sequences, that end earlier, are not continued.
+     *
+     * @return The number of move sequences.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Gets the number of move sequences (with at most the given depth), that end with a win of the given player.
+     *
+     * @param player The player (1 or 2).
+     * @return The number of won games.
+     */
+    public long getWins(int player) {
+        return player == 1 ? this.wins1 : this.wins2;
+    }
+
+    /**
+     * Gets the number of move sequences (with at most the given depth), that end with a draw.
+     *
+     * @return The number of draws.
+     */
+    public long getDraws() {
+        return this.draws;
+    }
+
+    /**
+     * Gets the number of positions, that were visited. Positions, whose counts were found in the hash table, are not
+     * visited again.
+     *
+     * @return The number of visited positions.
+     */
+    public long getVisitedNodes() {
+        return this.visitedNodes;
+    }
+
+    /**
+     * Gets the duration of the count.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of visited positions per second.
+     *
+     * @return The number of positions per second.
+     */
+    public double getNodesPerSecond() {
+        return this.elapsedTime == 0 ? 0 : this.visitedNodes * 1e9 / this.elapsedTime;
+    }
+
+    /**
+     * Checks if the given result has the same counts of sequences and games as this result. The visited positions
+     * and the time are not compared.
+     *
+     * @param other The other result.
+     * @return If the counts are equal.
+     */
+    public boolean hasSameCounts(PerftResult other) {
+        return this.nodes == other.nodes && this.wins1 == other.wins1 && this.wins2 == other.wins2
+                && this.draws == other.draws;
+    }
+
+    @Override
+    public String toString() {
+        return "PerftResult{" +
+                "nodes=" + nodes +
+                ", wins1=" + wins1 +
+                ", wins2=" + wins2 +
+                ", draws=" + draws +
+                ", visitedNodes=" + visitedNodes +
+                ", elapsedTime=" + elapsedTime +
+                '}';
+    }
+}
@@ -7,6 +7,11 @@ package model;
  */
 public class VierGewinnt {
 
+    /**
+     * The winning pieces of a game, that has not been won (yet).
+     */
+    private static final int[][] NO_WINNING_PIECES = new int[0][0];
+
     /**
      * The board on which the game is played.
      */
@@ -24,15 +29,32 @@ public class VierGewinnt {
      */
     private int winningPlayer = -1;
     /**
-     * The pieces that won the game. If the game has not yet ended, the array will be empty.
+     * The pieces that won the game. If the game has not yet ended, the array will be empty. The pieces are only
+     * searched when they are requested by {@code getWinningPieces()}.
+     */
+    private int[][] winningPieces = NO_WINNING_PIECES;
+    /**
+     * The columns of all placed pieces in the order they were placed. Used as move stack by {@code undo()}.
+     */
+    private final int[] moves;
+    /**
+     * The number of placed pieces (the size of the move stack).
      */
-    private int[][] winningPieces = new int[0][0];
+    private int moveCount = 0;
+    /**
+     * The column of the last placed piece or {@code -1} if there is none.
+     */
+    private int lastColumn = -1;
+    /**
+     * The row of the last placed piece or {@code -1} if there is none.
+     */
+    private int lastRow = -1;
 
     /**
      * Creates a new game of four-in-a-row with the default size.
      */
     public VierGewinnt() {
-        this.board = new Board();
+        this(7, 6);
     }
 
     /**
@@ -42,7 +64,8 @@ public class VierGewinnt {
      * @param rows    The number of rows on the board.
      */
     public VierGewinnt(int columns, int rows) {
-        this.board = new Board(rows, columns);
+        this.board = Board.create(rows, columns);
+        this.moves = new int[rows * columns];
     }
 
 
@@ -75,6 +98,25 @@ public class VierGewinnt {
         return this.board.getField(column, row);
     }
 
+    /**
+     * Returns the Zobrist key of the current position on the board (see {@link Board#getPositionKey()}).
+     *
+     * @return The key of the position.
+     */
+    public long getPositionKey() {
+        return this.board.getPositionKey();
+    }
+
+    /**
+     * Returns the canonical key of the current position on the board, which is the same for the position and its
+     * mirror image (see {@link Board#getCanonicalKey()}).
+     *
+     * @return The canonical key of the position.
+     */
+    public long getCanonicalKey() {
+        return this.board.getCanonicalKey();
+    }
+
     /**
      * Returns the number of the current player. The piece number that this player places is returned.
      *
@@ -140,7 +182,10 @@ public class VierGewinnt {
         }
 
         if (this.board.placePiece(column, this.currentPlayer)) {
-            if (this.isWinningPiece(column, this.board.getLastPiecePosition(column))) {
+            this.moves[this.moveCount++] = column;
+            this.lastColumn = column;
+            this.lastRow = this.board.getLastPiecePosition(column);
+            if (this.board.isWinningPiece(this.lastColumn, this.lastRow)) {
                 this.end = true;
                 this.winningPlayer = getCurrentPlayer(); // current player won
             } else if (this.board.isFull()) {
@@ -155,13 +200,103 @@ public class VierGewinnt {
     }
 
     /**
-     * Checks if the piece on the given field is part of a winning combination (four in a row).
+     * Takes back the last placed piece. The board, the current player and the end of the game are restored to the
+     * state before the piece was placed.
+     *
+     * @return if a piece could be taken back, {@code false} if no piece was placed yet
+     */
+    public boolean undo() {
+        if (this.moveCount == 0) {
+            return false;
+        }
+        this.board.removePiece(this.moves[--this.moveCount]);
+        if (this.end) {
+            // the player, who placed the last piece, is still the current player
+            this.end = false;
+            this.winningPlayer = -1;
+            this.winningPieces = NO_WINNING_PIECES;
+        } else {
+            switchCurrentPlayer();
+        }
+        if (this.moveCount > 0) {
+            this.lastColumn = this.moves[this.moveCount - 1];
+            this.lastRow = this.board.getLastPiecePosition(this.lastColumn);
+        } else {
+            this.lastColumn = -1;
+            this.lastRow = -1;
+        }
+        return true;
+    }
+
+    /**
+     * Takes back all pieces and starts the game again with player 1. The game can be reused without creating new
+     * objects.
+     */
+    public void reset() {
+        while (this.moveCount > 0) {
+            this.board.removePiece(this.moves[--this.moveCount]);
+        }
+        this.currentPlayer = 1;
+        this.end = false;
+        this.winningPlayer = -1;
+        this.winningPieces = NO_WINNING_PIECES;
+        this.lastColumn = -1;
+        this.lastRow = -1;
+    }
+
+    /**
+     * Checks if the current player can place a piece in the given column.
+     *
+     * @param column The column (from 0 to getColumns() - 1).
+     * @return {@code true} if the game has not ended and the column is not full.
+     */
+    public boolean canPlacePiece(int column) {
+        return !this.end && this.board.canPlacePiece(column);
+    }
+
+    /**
+     * Checks if the given player would win by placing a piece in the given column. The game is not changed.
+     *
+     * @param column The column (from 0 to getColumns() - 1).
+     * @param piece  The piece of the player.
+     * @return {@code true} if the game has not ended and the piece would complete a four-in-a-row.
+     */
+    public boolean isWinningMove(int column, int piece) {
+        return !this.end && this.board.isWinningMove(column, piece);
+    }
+
+    /**
+     * Returns the number of pieces, that were placed in this game.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Returns the column of the piece, that was placed as the given move.
+     *
+     * @param index The number of the move (from 0 to getMoveCount() - 1).
+     * @return The column of the move.
+     * @throws IndexOutOfBoundsException If there is no move with the given number.
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= this.moveCount) {
+            throw new IndexOutOfBoundsException("Illegal move number. index = " + index);
+        }
+        return this.moves[index];
+    }
+
+    /**
+     * Searches the winning combination (four in a row) of the piece on the given field and stores it as the winning
+     * pieces. Is only called once per game, when the winning pieces are requested.
      *
      * @param x the column of the piece
      * @param y the row of the piece
      * @return whether the piece is part of a winning combination
      */
-    private boolean isWinningPiece(int x, int y) {
+    private boolean findWinningPieces(int x, int y) {
         // the pieces that (possibly) won the game
         int[][] pieces = new int[4][2];
 
@@ -250,6 +385,9 @@ public class VierGewinnt {
      * @return The coordinates of the winning pieces in an array.
      */
     public int[][] getWinningPieces() {
+        if (this.winningPlayer > 0 && this.winningPieces.length == 0) {
+            this.findWinningPieces(this.lastColumn, this.lastRow);
+        }
         return this.winningPieces;
     }
 
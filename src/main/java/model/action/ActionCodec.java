@@ -0,0 +1,259 @@
+package model.action;
+
+import java.io.DataOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes actions into a {@link ByteBuffer} and decodes them from a buffer. Every action is sent as a frame: the number
+ * of the following bytes as an int ({@value #HEADER_SIZE} bytes), the type of the action as one byte and the data of
+ * the action, where strings are written like {@link DataOutputStream#writeUTF(String)}. The
+ * {@link ActionOutputEncoder} and the {@link ActionInputDecoder} use the same frames.
+ * <p>
+ * A frame can be decoded as soon as all of its bytes are in the buffer, so the data of a non-blocking channel can be
+ * decoded without a thread, that waits for the rest of an action. Because of the length, a frame with an unknown type
+ * is skipped and the next frame is read correctly.
+ *
+ * @author Hannes Illy
+ */
+public final class ActionCodec {
+    /**
+     * The number of bytes of the length of a frame.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES;
+    /**
+     * The maximum number of bytes of a frame (a message with three strings of maximum length).
+     */
+    public static final int MAX_SIZE = HEADER_SIZE + 1 + 3 * (2 + 65535);
+
+    /**
+     * Utility class.
+     */
+    private ActionCodec() {
+    }
+
+    /**
+     * Gets the number of bytes of the frame of the action, including the length.
+     *
+     * @param action The action.
+     * @return The number of bytes.
+     * @throws IllegalArgumentException If the action has an illegal type or a string is too long.
+     */
+    public static int size(Action action) {
+        switch (action.getType()) {
+            case Action.TYPE_NEW_PLAYER:
+                return HEADER_SIZE + 1 + sizeUTF(((NewPlayerAction) action).getName());
+            case Action.TYPE_PUT:
+                return HEADER_SIZE + 1 + 2 * Integer.BYTES;
+            case Action.TYPE_NEW_GAME:
+                return HEADER_SIZE + 1;
+            case Action.TYPE_EXIT:
+                return HEADER_SIZE + 1 + sizeUTF(((ExitAction) action).getName()) + Integer.BYTES;
+            case Action.TYPE_MESSAGE:
+                MessageAction message = (MessageAction) action;
+                return HEADER_SIZE + 1 + sizeUTF(message.getSource()) + sizeUTF(message.getDestination())
+                        + sizeUTF(message.getMessage());
+            default:
+                throw new IllegalArgumentException("Illegal action type. type = " + action.getType());
+        }
+    }
+
+    /**
+     * Writes the frame of the action to the buffer.
+     *
+     * @param action The action.
+     * @param buffer The buffer with at least {@code size(action)} remaining bytes.
+     * @throws IllegalArgumentException If the action has an illegal type or a string is too long.
+     */
+    public static void encode(Action action, ByteBuffer buffer) {
+        buffer.putInt(size(action) - HEADER_SIZE);
+        buffer.put((byte) action.getType());
+        switch (action.getType()) {
+            case Action.TYPE_NEW_PLAYER:
+                putUTF(buffer, ((NewPlayerAction) action).getName());
+                break;
+            case Action.TYPE_PUT:
+                buffer.putInt(((PutAction) action).getColumn());
+                buffer.putInt(((PutAction) action).getPiece());
+                break;
+            case Action.TYPE_NEW_GAME:
+                break;
+            case Action.TYPE_EXIT:
+                putUTF(buffer, ((ExitAction) action).getName());
+                buffer.putInt(((ExitAction) action).getExitType());
+                break;
+            case Action.TYPE_MESSAGE:
+                putUTF(buffer, ((MessageAction) action).getSource());
+                putUTF(buffer, ((MessageAction) action).getDestination());
+                putUTF(buffer, ((MessageAction) action).getMessage());
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal action type. type = " + action.getType());
+        }
+    }
+
+    /**
+     * Reads the next action from the buffer. Frames with an unknown type are skipped. If the buffer does not contain
+     * the whole frame, nothing is read.
+     *
+     * @param buffer The buffer, whose remaining bytes are decoded.
+     * @return The action or {@code null} if the frame is not complete.
+     * @throws IllegalArgumentException If the length of the frame is illegal or the data does not match the type. In
+     *                                  the second case the frame is skipped.
+     */
+    public static Action decode(ByteBuffer buffer) {
+        Action action = null;
+        while (action == null) {
+            int start = buffer.position();
+            int length = frameLength(buffer, start);
+            if (length < 0) {
+                return null;
+            }
+            int end = start + HEADER_SIZE + length;
+            int limit = buffer.limit();
+            buffer.position(start + HEADER_SIZE).limit(end);
+            try {
+                action = decodeAction(buffer);
+                if (action != null && buffer.hasRemaining()) {
+                    throw new IllegalArgumentException("The frame is too long. type = " + action.getType());
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("The frame is too short.", e);
+            } finally {
+                buffer.limit(limit).position(end);
+            }
+        }
+        return action;
+    }
+
+    /**
+     * Gets the length of the frame at the given position of the buffer.
+     *
+     * @param buffer The buffer.
+     * @param start  The position of the frame.
+     * @return The number of bytes after the length or -1 if the frame is not complete.
+     * @throws IllegalArgumentException If the length is illegal.
+     */
+    private static int frameLength(ByteBuffer buffer, int start) {
+        if (buffer.limit() - start < HEADER_SIZE) {
+            return -1;
+        }
+        int length = buffer.getInt(start);
+        if (length < 1 || length > MAX_SIZE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Illegal frame length. length = " + length);
+        }
+        return buffer.limit() - start - HEADER_SIZE >= length ? length : -1;
+    }
+
+    /**
+     * Reads the type and the data of an action, whose frame ends at the limit of the buffer.
+     *
+     * @param buffer The buffer.
+     * @return The action or {@code null} if the type is unknown.
+     */
+    private static Action decodeAction(ByteBuffer buffer) {
+        switch (buffer.get()) {
+            case Action.TYPE_NEW_PLAYER:
+                return new NewPlayerAction(getUTF(buffer));
+            case Action.TYPE_PUT:
+                return new PutAction(buffer.getInt(), buffer.getInt());
+            case Action.TYPE_NEW_GAME:
+                return new NewGameAction();
+            case Action.TYPE_EXIT:
+                return new ExitAction(getUTF(buffer), buffer.getInt());
+            case Action.TYPE_MESSAGE:
+                return new MessageAction(getUTF(buffer), getUTF(buffer), getUTF(buffer));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the number of bytes of an encoded string (2 bytes length and the modified UTF-8 bytes).
+     *
+     * @param s The string.
+     * @return The number of bytes.
+     * @throws IllegalArgumentException If the string is too long.
+     */
+    static int sizeUTF(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        if (length > 65535) {
+            throw new IllegalArgumentException("The string is too long. length = " + length);
+        }
+        return 2 + length;
+    }
+
+    /**
+     * Writes a string like {@link DataOutputStream#writeUTF(String)}.
+     *
+     * @param buffer The buffer.
+     * @param s      The string.
+     * @throws IllegalArgumentException If the string is too long.
+     */
+    static void putUTF(ByteBuffer buffer, String s) {
+        buffer.putShort((short) (sizeUTF(s) - 2));
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer.put((byte) c);
+            } else if (c <= 0x07FF) {
+                buffer.put((byte) (0xC0 | c >> 6 & 0x1F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12 & 0x0F));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Reads a string like {@link java.io.DataInputStream#readUTF()}.
+     *
+     * @param buffer The buffer.
+     * @return The string.
+     * @throws IllegalArgumentException If the string is not encoded correctly.
+     * @throws BufferUnderflowException If the buffer does not contain the whole string.
+     */
+    static String getUTF(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int end = buffer.position() + length;
+        char[] chars = new char[length];
+        int count = 0;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0 && buffer.position() < end) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | continuation(buffer));
+            } else if ((b & 0xF0) == 0xE0 && buffer.position() + 1 < end) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | continuation(buffer) << 6 | continuation(buffer));
+            } else {
+                throw new IllegalArgumentException("Malformed string.");
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Reads a continuation byte of a character.
+     *
+     * @param buffer The buffer.
+     * @return The low 6 bits of the byte.
+     * @throws IllegalArgumentException If the byte is not a continuation byte.
+     */
+    private static int continuation(ByteBuffer buffer) {
+        int b = buffer.get();
+        if ((b & 0xC0) != 0x80) {
+            throw new IllegalArgumentException("Malformed string.");
+        }
+        return b & 0x3F;
+    }
+}
@@ -4,16 +4,22 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.Queue;
 
 /**
  * A class that, when executed as a thread, reads the {@link InputStream} and decodes the given information into
- * actions.
+ * actions. The stream consists of the frames of the {@link ActionCodec}; a frame with an unknown type is skipped.
  *
  * @author Hannes Illy
  */
 public class ActionInputDecoder implements Runnable {
+    /**
+     * The initial size of the buffer, which is large enough for the actions of a game.
+     */
+    private static final int BUFFER_SIZE = 256;
+
     /**
      * The input stream, from which the data is read.
      */
@@ -21,12 +27,20 @@ public class ActionInputDecoder implements Runnable {
     /**
      * If the stream is already closed and cannot be read anymore.
      */
-    private boolean isClosed = false;
+    private volatile boolean isClosed = false;
     /**
      * The queue in which the decoded actions are stored. The access to it is possible via the {@code getAction()}
      * method. Both the method and the addition of actions to the queue are synchronized.
      */
     private final Queue<Action> actions;
+    /**
+     * The listener, that is notified about new actions and the end of the stream, or {@code null}.
+     */
+    private volatile Runnable listener = null;
+    /**
+     * The buffer, into which a frame is read. It grows for longer actions. Only used by the thread of the decoder.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
 
     /**
      * Creates a new input decoder. This runnable has to be started in a thread, to begin reading and decoding the data
@@ -41,6 +55,16 @@ public class ActionInputDecoder implements Runnable {
 
 
 
+    /**
+     * Sets the listener, that is notified by the thread of the decoder after an action was added to the queue and
+     * after the decoder was closed. So the actions can be read, when they arrive, instead of polling the queue.
+     *
+     * @param listener The listener or {@code null}.
+     */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
     /**
      * Checks if the {@link InputStream} that is read is still active.
      *
@@ -59,6 +83,17 @@ public class ActionInputDecoder implements Runnable {
         synchronized (this.actions) {
             this.actions.add(newAction);
         }
+        this.notifyListener();
+    }
+
+    /**
+     * Notifies the listener, if there is one.
+     */
+    private void notifyListener() {
+        Runnable listener = this.listener;
+        if (listener != null) {
+            listener.run();
+        }
     }
 
     /**
@@ -74,68 +109,67 @@ public class ActionInputDecoder implements Runnable {
 
     @Override
     public void run() {
-        int currentType = Action.TYPE_UNDEFINED;
-
         while (!isClosed) {
             try {
-                synchronized (in) {
-                    try {
-                        currentType = in.readByte();
-                    } catch (EOFException e) {
-                        // close this stream.
-                        currentType = Action.TYPE_UNDEFINED;
-                        System.out.println("Could not read action. End of File!");
-                    }
+                // no lock is held while the thread blocks, so a virtual thread does not pin its carrier
+                Action action = this.readFrame();
+                if (action != null) {
+                    this.addAction(action);
+                } else {
+                    System.out.println("Illegal action type. type = " + this.buffer.get(ActionCodec.HEADER_SIZE));
                 }
-                // if end of stream
-                if (currentType == Action.TYPE_UNDEFINED) {
+            } catch (EOFException e) {
+                // close this stream.
+                System.out.println("Could not read action. End of File!");
+                this.close();
+            } catch (IOException | IllegalArgumentException e) {
+                // the stream cannot be read anymore, if it was closed by another thread, the connection is lost or
+                // the data is not a valid frame
+                if (!isClosed) {
+                    e.printStackTrace();
                     this.close();
-                    break;
-                }
-
-                switch (currentType) {
-                    case Action.TYPE_NEW_PLAYER:
-                        this.addAction(new NewPlayerAction(in.readUTF()));
-                        break;
-                    case Action.TYPE_PUT:
-                        this.addAction(new PutAction(in.readInt(), in.readInt()));
-                        break;
-                    case Action.TYPE_NEW_GAME:
-                        this.addAction(new NewGameAction());
-                        break;
-                    case Action.TYPE_EXIT:
-                        String name = in.readUTF();
-                        int exitType = in.readInt();
-
-                        this.addAction(new ExitAction(name, exitType));
-                        break;
-                    case Action.TYPE_MESSAGE:
-                        String source = in.readUTF();
-                        String destination = in.readUTF();
-                        String message = in.readUTF();
-
-                        this.addAction(new MessageAction(source, destination, message));
-                        break;
-                    default:
-                        System.out.println("Illegal action type. type = " + currentType);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
             }
         }
     }
 
+    /**
+     * Reads the next frame from the stream and decodes it with the {@link ActionCodec}. The frame is read into a
+     * reused buffer, so the stream is read with one call for the length and one for the rest of the frame.
+     *
+     * @return The action or {@code null} if the type is unknown. The frame is skipped in this case.
+     * @throws EOFException             If the stream ended.
+     * @throws IOException              If the data cannot be read.
+     * @throws IllegalArgumentException If the length of the frame is illegal or the data does not match the type.
+     */
+    Action readFrame() throws IOException {
+        int length = in.readInt();
+        if (length < 1 || length > ActionCodec.MAX_SIZE - ActionCodec.HEADER_SIZE) {
+            throw new IllegalArgumentException("Illegal frame length. length = " + length);
+        }
+        int size = ActionCodec.HEADER_SIZE + length;
+        if (size > this.buffer.capacity()) {
+            int capacity = Math.min(Math.max(size, 2 * this.buffer.capacity()), ActionCodec.MAX_SIZE);
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+        this.buffer.clear();
+        this.buffer.putInt(length);
+        in.readFully(this.buffer.array(), ActionCodec.HEADER_SIZE, length);
+        this.buffer.position(0).limit(size);
+        return ActionCodec.decode(this.buffer);
+    }
+
     /**
      * Closes the thread and the underlying stream.
      */
     public void close() {
         this.isClosed = true;
-        synchronized (in) {
-            try {
-                in.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        // closing the stream ends a blocking read of the thread
+        try {
+            in.close();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        this.notifyListener();
     }
 }
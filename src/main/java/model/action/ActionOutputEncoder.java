@@ -1,19 +1,30 @@
 package model.action;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
- * This class is used to encode given actions and immediately send them to the given {@link OutputStream}.
+ * This class is used to encode given actions and immediately send them to the given {@link OutputStream}. Every action
+ * is encoded as a frame of the {@link ActionCodec} into a reused buffer and written to the stream at once, so an action
+ * is sent with a single write instead of one write per field.
  *
  * @author Hannes Illy
  */
 public class ActionOutputEncoder {
+    /**
+     * The initial size of the buffer, which is large enough for the actions of a game.
+     */
+    private static final int BUFFER_SIZE = 256;
+
     /**
      * The stream to which the encoded data is written.
      */
-    private DataOutputStream out;
+    private OutputStream out;
+    /**
+     * The buffer, in which the actions are encoded. It grows for longer actions. Guarded by the encoder.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
 
     /**
      * Creates a new action encoder with the given {@link OutputStream}.
@@ -21,44 +32,27 @@ public class ActionOutputEncoder {
      * @param out The stream to which the data is written.
      */
     public ActionOutputEncoder(OutputStream out) {
-        this.out = new DataOutputStream(out);
+        this.out = out;
     }
 
     /**
      * Sends the encoded action to the {@link OutputStream}.
      *
      * @param action The action that is sent.
+     * @throws IllegalArgumentException If the action has an illegal type or a string is too long.
      */
-    public void send(Action action) {
+    public synchronized void send(Action action) {
         if (out == null)
             return;
 
+        int size = ActionCodec.size(action);
+        if (size > buffer.capacity()) {
+            buffer = ByteBuffer.allocate(Math.min(Math.max(size, 2 * buffer.capacity()), ActionCodec.MAX_SIZE));
+        }
+        buffer.clear();
+        ActionCodec.encode(action, buffer);
         try {
-            // write action type
-            out.write(action.getType());
-            // write action data
-            switch (action.getType()) {
-                case Action.TYPE_NEW_PLAYER:
-                    out.writeUTF(((NewPlayerAction) action).getName());
-                    break;
-                case Action.TYPE_PUT:
-                    out.writeInt(((PutAction) action).getColumn());
-                    out.writeInt(((PutAction) action).getPiece());
-                    break;
-                case Action.TYPE_NEW_GAME:
-                    break;
-                case Action.TYPE_EXIT:
-                    out.writeUTF(((ExitAction) action).getName());
-                    out.writeInt(((ExitAction) action).getExitType());
-                    break;
-                case Action.TYPE_MESSAGE:
-                    out.writeUTF(((MessageAction) action).getSource());
-                    out.writeUTF(((MessageAction) action).getDestination());
-                    out.writeUTF(((MessageAction) action).getMessage());
-                    break;
-                default:
-                    throw new IllegalArgumentException("Illegal action type. type = " + action.getType());
-            }
+            out.write(buffer.array(), 0, buffer.position());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -67,7 +61,7 @@ public class ActionOutputEncoder {
     /**
      * Closes the underlying stream.
      */
-    public void close() {
+    public synchronized void close() {
         try {
             out.close();
             out = null;
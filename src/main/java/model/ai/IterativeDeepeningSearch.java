@@ -0,0 +1,274 @@
+package model.ai;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * An anytime search for a move within a fixed time budget. The position is searched with a depth-limited negamax search
+ * (alpha-beta pruning, center-first order, immediate-win check), first with depth 1, then with depth 2 and so on, until
+ * the score is exact or the time is up. The best move of the previous iteration is searched first, so the next
+ * iteration cuts off earlier.
+ * <p>
+ * When the time is up, the running iteration is stopped and the result of the last completed iteration is used, so the
+ * search always returns a move and never takes much longer than the budget. Positions beyond the depth get the score
+ * 0, so scores are defined as in {@link Solver} but 0 may also mean "not decided" (see {@link SearchInfo}).
+ * <p>
+ * A search is not thread-safe, but {@link #stop()} may be called from any thread.
+ *
+ * @author Hannes Illy
+ */
+public class IterativeDeepeningSearch {
+    /**
+     * The results of the iterations of the last search.
+     */
+    private final List<SearchInfo> iterations = new ArrayList<>();
+    /**
+     * The number of positions visited in the current iteration.
+     */
+    private long nodeCount;
+    /**
+     * The time (see {@link System#nanoTime()}) at which the current search has to stop.
+     */
+    private long deadline;
+    /**
+     * If the current iteration reached its depth limit in at least one line.
+     */
+    private boolean depthLimitReached;
+    /**
+     * If the search should stop as soon as possible. Can be set by other threads.
+     */
+    private volatile boolean stopped;
+    /**
+     * The center-first column order, in which all positions except the root are searched.
+     */
+    private int[] columnOrder;
+    /**
+     * The principal variations of every ply of the current iteration (triangular table).
+     */
+    private int[][] principalVariations;
+    /**
+     * The length of the principal variation of every ply.
+     */
+    private int[] principalVariationLengths;
+
+    /**
+     * Searches the best move of the current player of the given game within the given time. The game is not changed.
+     *
+     * @param game       The game, for which a move is searched.
+     * @param timeBudget The time for the search in milliseconds.
+     * @return The result of the last completed iteration.
+     * @throws IllegalStateException If the game has already ended.
+     */
+    public SearchInfo search(VierGewinnt game, long timeBudget) {
+        return this.search(game, timeBudget, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Searches the best move of the current player of the given game within the given time and depth. The game is not
+     * changed.
+     *
+     * @param game       The game, for which a move is searched.
+     * @param timeBudget The time for the search in milliseconds.
+     * @param maxDepth   The maximum search depth.
+     * @return The result of the last completed iteration.
+     * @throws IllegalStateException If the game has already ended.
+     */
+    public SearchInfo search(VierGewinnt game, long timeBudget, int maxDepth) {
+        try {
+            return this.iterate(game, timeBudget, maxDepth);
+        } finally {
+            // a stop, that arrives before the search, stops this search, but not the next one
+            this.stopped = false;
+        }
+    }
+
+    /**
+     * Searches with increasing depth, until the score is exact, the time is up or the search was stopped.
+     *
+     * @param game       The game, for which a move is searched.
+     * @param timeBudget The time for the search in milliseconds.
+     * @param maxDepth   The maximum search depth.
+     * @return The result of the last completed iteration.
+     */
+    private SearchInfo iterate(VierGewinnt game, long timeBudget, int maxDepth) {
+        long start = System.nanoTime();
+        // without a time limit the deadline is about 146 years away, which keeps the difference to nanoTime() exact
+        this.deadline = start + Math.min(timeBudget, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+        this.iterations.clear();
+
+        Board board = Solver.toBoard(game);
+        int piece = game.getCurrentPlayer();
+        this.columnOrder = Solver.columnOrder(board.getColumns());
+        int[] order = this.columnOrder;
+        int emptyFields = board.getRows() * board.getColumns() - board.getMoveCount();
+        maxDepth = Math.min(maxDepth, emptyFields);
+        this.principalVariations = new int[emptyFields + 1][emptyFields + 1];
+        this.principalVariationLengths = new int[emptyFields + 1];
+
+        // until the first iteration completes, the best move is an immediate win or the most central move
+        SearchInfo best = this.fallback(board, piece, order, System.nanoTime() - start);
+        if (best.isExact()) {
+            this.iterations.add(best);
+            return best;
+        }
+        for (int depth = 1; depth <= maxDepth && !this.stopped; depth++) {
+            long iterationStart = System.nanoTime();
+            this.nodeCount = 0;
+            this.depthLimitReached = false;
+            int score;
+            try {
+                score = this.negamax(board, piece, order, depth, 0, Integer.MIN_VALUE + 1, Integer.MAX_VALUE);
+            } catch (CancellationException e) {
+                break;
+            }
+            int[] principalVariation = new int[this.principalVariationLengths[0]];
+            System.arraycopy(this.principalVariations[0], 0, principalVariation, 0, principalVariation.length);
+            // a proven win or loss is exact, even if other lines were cut off
+            boolean exact = !this.depthLimitReached || score != 0;
+            best = new SearchInfo(depth, score, exact, this.nodeCount, System.nanoTime() - iterationStart,
+                    principalVariation);
+            this.iterations.add(best);
+
+            if (exact) {
+                break;
+            }
+            // search the best move first in the next iteration
+            order = this.moveToFront(this.columnOrder, best.getBestMove());
+        }
+        return best;
+    }
+
+    /**
+     * Gets the results of all completed iterations of the last search.
+     *
+     * @return The results in the order of the iterations.
+     */
+    public List<SearchInfo> getIterations() {
+        return Collections.unmodifiableList(this.iterations);
+    }
+
+    /**
+     * Stops the running search. The search returns the result of the last completed iteration. If no search is
+     * running, the next search is stopped, before it starts its first iteration, so a search can be cancelled, before
+     * it has started.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * The depth-limited negamax search with alpha-beta pruning. Stores the principal variation of each ply.
+     *
+     * @param board The position, which must not be full or won. It is restored before the method returns.
+     * @param piece The piece of the player to move.
+     * @param order The columns in the order in which they are searched in this position.
+     * @param depth The number of moves, that may still be searched.
+     * @param ply   The number of moves since the root of the search.
+     * @param alpha The lower bound of the search window.
+     * @param beta  The upper bound of the search window.
+     * @return The score of the position within the bounds, where positions at the depth limit have the score 0.
+     * @throws CancellationException If the time is up or the search was stopped.
+     */
+    private int negamax(Board board, int piece, int[] order, int depth, int ply, int alpha, int beta) {
+        if ((++this.nodeCount & 0x3FF) == 0 && (this.stopped || System.nanoTime() - this.deadline > 0)) {
+            throw new CancellationException("The time is up.");
+        }
+        this.principalVariationLengths[ply] = ply;
+
+        for (int column : order) {
+            if (board.isWinningMove(column, piece)) {
+                this.principalVariations[ply][ply] = column;
+                this.principalVariationLengths[ply] = ply + 1;
+                return Solver.winScore(board);
+            }
+        }
+        if (depth == 0) {
+            this.depthLimitReached = true;
+            return 0;
+        }
+
+        // the player cannot win with the next piece, so the score is at most the score of winning one move later
+        int max = (board.getRows() * board.getColumns() - 1 - board.getMoveCount()) / 2;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        for (int column : order) {
+            if (board.placePiece(column, piece)) {
+                int score;
+                if (board.isFull()) {
+                    score = 0;
+                    this.principalVariationLengths[ply + 1] = ply + 1;
+                } else {
+                    score = -this.negamax(board, 3 - piece, this.columnOrder, depth - 1, ply + 1, -beta, -alpha);
+                }
+                board.removePiece(column);
+                if (score > alpha) {
+                    alpha = score;
+                    // the principal variation is this move followed by the principal variation of the next ply
+                    int[] next = this.principalVariations[ply + 1];
+                    int[] current = this.principalVariations[ply];
+                    current[ply] = column;
+                    int length = this.principalVariationLengths[ply + 1];
+                    System.arraycopy(next, ply + 1, current, ply + 1, length - ply - 1);
+                    this.principalVariationLengths[ply] = Math.max(length, ply + 1);
+                }
+                if (score >= beta) {
+                    return score;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Creates the result, that is used before any iteration completed: an immediate win (exact) or the most central
+     * playable column.
+     *
+     * @param board       The position.
+     * @param piece       The piece of the player to move.
+     * @param order       The columns in the order of the search.
+     * @param elapsedTime The time since the start of the search.
+     * @return The fallback result with depth 0.
+     */
+    private SearchInfo fallback(Board board, int piece, int[] order, long elapsedTime) {
+        for (int column : order) {
+            if (board.isWinningMove(column, piece)) {
+                return new SearchInfo(1, Solver.winScore(board), true, 1, elapsedTime, new int[]{column});
+            }
+        }
+        for (int column : order) {
+            if (board.canPlacePiece(column)) {
+                return new SearchInfo(0, 0, false, 1, elapsedTime, new int[]{column});
+            }
+        }
+        return new SearchInfo(0, 0, false, 1, elapsedTime, new int[0]);
+    }
+
+    /**
+     * Returns a copy of the order, in which the given column is moved to the front.
+     *
+     * @param order  The column order.
+     * @param column The column that is searched first.
+     * @return The new column order.
+     */
+    private int[] moveToFront(int[] order, int column) {
+        int[] newOrder = new int[order.length];
+        newOrder[0] = column;
+        int index = 1;
+        for (int c : order) {
+            if (c != column) {
+                newOrder[index++] = c;
+            }
+        }
+        return newOrder;
+    }
+}
@@ -0,0 +1,560 @@
+package model.ai;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Monte Carlo tree search, that finds good moves on boards of any size, where an exact {@link Solver} would take too
+ * long. The search builds a tree of the positions after the current one: it selects a path through the tree with the
+ * UCT formula, adds the children of the last position of the path, plays a random game from there and adds the result
+ * to all positions of the path. The move, that was visited most often, is the best move.
+ * <p>
+ * The tree is shared by several threads (tree parallelism). A thread counts its visit of a position as soon as it
+ * selects the position and adds the result later, so the position looks like a loss until then (virtual loss) and
+ * the other threads prefer other paths. The random games are played on a copy of the position per thread, that is
+ * changed in place and restored after each game, so they need no memory.
+ * <p>
+ * A search is limited by the number of random games (playouts), by time or both. Like a {@link ParallelSolver}, it can
+ * only run one search at a time and has to be closed, when it is no longer used.
+ *
+ * @author Hannes Illy
+ */
+public class MonteCarloTreeSearch {
+    /**
+     * The default weight of the exploration term of the UCT formula.
+     */
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    /**
+     * The state of a position, that has not ended.
+     */
+    private static final int ONGOING = 0;
+    /**
+     * The state of a position, that was won with the last move.
+     */
+    private static final int WON = 1;
+    /**
+     * The state of a position, that ended in a draw with the last move.
+     */
+    private static final int DRAW = 2;
+
+    /**
+     * The number of search threads.
+     */
+    private final int threads;
+    /**
+     * The weight of the exploration term of the UCT formula.
+     */
+    private final double exploration;
+    /**
+     * Runs the search threads.
+     */
+    private final ExecutorService executor;
+    /**
+     * The number of playouts of each thread during the last search.
+     */
+    private final long[] playoutCounts;
+    /**
+     * The duration of the last search in nanoseconds.
+     */
+    private long elapsedTime = 0;
+    /**
+     * The root of the tree of the last search.
+     */
+    private Node root = null;
+    /**
+     * If the search should stop as soon as possible. Can be set by other threads.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a new search with the given number of threads and the given weight of the exploration.
+     *
+     * @param threads     The number of search threads.
+     * @param exploration The weight of the exploration term. Higher values search more moves, lower values search the
+     *                    best moves deeper.
+     * @throws IllegalArgumentException If the number of threads is not positive or the exploration is negative.
+     */
+    public MonteCarloTreeSearch(int threads, double exploration) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Illegal number of threads. threads = " + threads);
+        }
+        if (!(exploration >= 0)) {
+            throw new IllegalArgumentException("Illegal exploration. exploration = " + exploration);
+        }
+        this.threads = threads;
+        this.exploration = exploration;
+        this.playoutCounts = new long[threads];
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "MonteCarloTreeSearch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new search with the given number of threads and the default exploration.
+     *
+     * @param threads The number of search threads.
+     */
+    public MonteCarloTreeSearch(int threads) {
+        this(threads, DEFAULT_EXPLORATION);
+    }
+
+    /**
+     * Creates a new search with one thread per available processor.
+     */
+    public MonteCarloTreeSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Searches the best move of the current player of the given game. The search stops after the given number of
+     * playouts or after the given time, whichever comes first. The game is not changed.
+     *
+     * @param game       The game, for which a move is searched.
+     * @param playouts   The maximum number of playouts (at least 1) or {@link Long#MAX_VALUE} for no limit.
+     * @param timeBudget The maximum time in milliseconds or {@link Long#MAX_VALUE} for no limit.
+     * @return The column of the move, that was visited most often.
+     * @throws IllegalStateException    If the game has already ended.
+     * @throws IllegalArgumentException If both limits are {@link Long#MAX_VALUE} or the number of playouts is less
+     *                                  than 1.
+     */
+    public int search(VierGewinnt game, long playouts, long timeBudget) {
+        if (playouts < 1) {
+            throw new IllegalArgumentException("At least one playout is needed. playouts = " + playouts);
+        }
+        if (playouts == Long.MAX_VALUE && timeBudget == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("The search needs a limit.");
+        }
+        long start = System.nanoTime();
+        // without a time limit the deadline is about 146 years away, which keeps the difference to nanoTime() exact
+        long deadline = start + Math.min(timeBudget, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+        this.stopped = false;
+
+        Board board = Solver.toBoard(game);
+        Node root = new Node(-1, ONGOING);
+        root.expand(board, game.getCurrentPlayer());
+        this.root = root;
+
+        AtomicLong remaining = new AtomicLong(playouts);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < this.threads; i++) {
+            results.add(this.executor.submit(new Worker(root, game, remaining, deadline)));
+        }
+        try {
+            for (int i = 0; i < this.threads; i++) {
+                this.playoutCounts[i] = this.getResult(results.get(i));
+            }
+        } finally {
+            this.stopped = true;
+            this.elapsedTime = System.nanoTime() - start;
+        }
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits || child.state == WON) {
+                best = child;
+                if (child.state == WON) {
+                    break;
+                }
+            }
+        }
+        return best.column;
+    }
+
+    /**
+     * Waits for a search thread to finish and returns its number of playouts.
+     *
+     * @param result The result of the thread.
+     * @return The number of playouts.
+     */
+    private long getResult(Future<Long> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The search failed.", e.getCause());
+        } catch (InterruptedException e) {
+            this.stopped = true;
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The search was interrupted.");
+        }
+    }
+
+    /**
+     * Stops the running search. The search returns the best move found so far. Can be called from any thread.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Gets the number of search threads.
+     *
+     * @return The number of threads.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Gets the number of times, that the given column was visited during the last search.
+     *
+     * @param column The column.
+     * @return The number of visits or {@code 0} if the column was not searched.
+     */
+    public int getVisits(int column) {
+        Node child = this.getChild(column);
+        return child == null ? 0 : child.visits;
+    }
+
+    /**
+     * Gets the share of points, that the current player got in the playouts after the given column during the last
+     * search. A win counts as one point and a draw as half a point.
+     *
+     * @param column The column.
+     * @return The share of points (from 0 to 1) or {@link Double#NaN} if the column was not searched.
+     */
+    public double getWinRate(int column) {
+        Node child = this.getChild(column);
+        return child == null || child.visits == 0 ? Double.NaN : child.reward / (2.0 * child.visits);
+    }
+
+    /**
+     * Returns the child of the root of the last search, that is reached with a piece in the given column.
+     *
+     * @param column The column.
+     * @return The child or {@code null} if there is none.
+     */
+    private Node getChild(int column) {
+        if (this.root != null && this.root.children != null) {
+            for (Node child : this.root.children) {
+                if (child.column == column) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the duration of the last search.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of playouts, that the given thread played during the last search.
+     *
+     * @param thread The number of the thread (from 0 to getThreads() - 1).
+     * @return The number of playouts.
+     */
+    public long getPlayoutCount(int thread) {
+        return this.playoutCounts[thread];
+    }
+
+    /**
+     * Gets the number of playouts, that all threads played during the last search.
+     *
+     * @return The number of playouts.
+     */
+    public long getPlayoutCount() {
+        long sum = 0;
+        for (long count : this.playoutCounts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the number of playouts per second of all threads during the last search.
+     *
+     * @return The number of playouts per second.
+     */
+    public double getPlayoutsPerSecond() {
+        return this.elapsedTime == 0 ? 0 : this.getPlayoutCount() * 1e9 / this.elapsedTime;
+    }
+
+    /**
+     * Stops the search threads.
+     */
+    public void close() {
+        this.stopped = true;
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * A position in the search tree. The statistics are updated by several threads without locks.
+     */
+    private static final class Node {
+        /**
+         * Access to the number of visits.
+         */
+        private static final VarHandle VISITS;
+        /**
+         * Access to the sum of the rewards.
+         */
+        private static final VarHandle REWARD;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+                REWARD = lookup.findVarHandle(Node.class, "reward", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /**
+         * The column of the move, that leads to this position.
+         */
+        private final int column;
+        /**
+         * If the game ended with the move, that leads to this position ({@link #WON} or {@link #DRAW}).
+         */
+        private final int state;
+        /**
+         * The positions after this one or {@code null} if they were not added yet.
+         */
+        private volatile Node[] children;
+        /**
+         * The number of visits, including the running ones.
+         */
+        private volatile int visits;
+        /**
+         * The sum of the results of the finished visits in half points (win = 2, draw = 1, loss = 0), from the view of
+         * the player, that made the move to this position.
+         */
+        private volatile long reward;
+
+        /**
+         * Creates a position.
+         *
+         * @param column The column of the move, that leads to this position.
+         * @param state  If the game ended with the move.
+         */
+        private Node(int column, int state) {
+            this.column = column;
+            this.state = state;
+        }
+
+        /**
+         * Adds the children of this position, if they were not added yet by another thread.
+         *
+         * @param board The position of this node.
+         * @param piece The piece of the player to move.
+         * @return The children.
+         */
+        private synchronized Node[] expand(Board board, int piece) {
+            if (this.children == null) {
+                int fields = board.getRows() * board.getColumns();
+                List<Node> children = new ArrayList<>(board.getColumns());
+                for (int column : Solver.columnOrder(board.getColumns())) {
+                    if (board.canPlacePiece(column)) {
+                        int state = board.isWinningMove(column, piece) ? WON
+                                : board.getMoveCount() + 1 == fields ? DRAW : ONGOING;
+                        children.add(new Node(column, state));
+                    }
+                }
+                this.children = children.toArray(new Node[0]);
+            }
+            return this.children;
+        }
+
+        /**
+         * Selects the child with the highest UCT value. A child, that wins immediately, is always selected and
+         * children, that were not visited yet, are selected first.
+         *
+         * @param children    The children of this position.
+         * @param exploration The weight of the exploration term.
+         * @return The selected child.
+         */
+        private Node select(Node[] children, double exploration) {
+            double logVisits = Math.log(Math.max(this.visits, 1));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int visits = child.visits;
+                if (child.state == WON || visits == 0) {
+                    return child;
+                }
+                double value = child.reward / (2.0 * visits) + exploration * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Counts a visit, which is a loss until the result is added (virtual loss).
+         */
+        private void addVisit() {
+            VISITS.getAndAdd(this, 1);
+        }
+
+        /**
+         * Adds the result of a visit.
+         *
+         * @param reward The result in half points.
+         */
+        private void addReward(int reward) {
+            REWARD.getAndAdd(this, (long) reward);
+        }
+    }
+
+    /**
+     * A search thread. It plays on its own copy of the position and runs until the limits are reached.
+     */
+    private final class Worker implements Callable<Long> {
+        /**
+         * The root of the shared tree.
+         */
+        private final Node root;
+        /**
+         * The copy of the position, which is changed during the playouts.
+         */
+        private final Board board;
+        /**
+         * The piece of the player to move at the root.
+         */
+        private final int rootPiece;
+        /**
+         * The number of playouts, that may still be started by all threads.
+         */
+        private final AtomicLong remaining;
+        /**
+         * The time (see {@link System#nanoTime()}) at which the search has to stop.
+         */
+        private final long deadline;
+        /**
+         * The nodes of the current path, starting with the root.
+         */
+        private final Node[] path;
+        /**
+         * The random numbers for the playouts.
+         */
+        private final SplittableRandom random = new SplittableRandom();
+
+        /**
+         * Creates a search thread.
+         *
+         * @param root      The root of the shared tree.
+         * @param game      The game, for which a move is searched.
+         * @param remaining The number of playouts, that may still be started by all threads.
+         * @param deadline  The time at which the search has to stop.
+         */
+        private Worker(Node root, VierGewinnt game, AtomicLong remaining, long deadline) {
+            this.root = root;
+            this.board = Solver.toBoard(game);
+            this.rootPiece = game.getCurrentPlayer();
+            this.remaining = remaining;
+            this.deadline = deadline;
+            this.path = new Node[this.board.getRows() * this.board.getColumns() - this.board.getMoveCount() + 1];
+        }
+
+        @Override
+        public Long call() {
+            long playouts = 0;
+            int[] rootHeights = this.board.getHeights().clone();
+            while (!MonteCarloTreeSearch.this.stopped && System.nanoTime() - this.deadline < 0
+                    && this.remaining.getAndDecrement() > 0) {
+                this.iterate();
+                // restore the position of the root, the order in which the pieces are removed does not matter
+                for (int column = 0; column < rootHeights.length; column++) {
+                    for (int i = this.board.getHeight(column); i > rootHeights[column]; i--) {
+                        this.board.removePiece(column);
+                    }
+                }
+                playouts++;
+            }
+            return playouts;
+        }
+
+        /**
+         * Runs one iteration: selects a path, adds the children of its last position, plays a random game and adds the
+         * result to the path. The board is not restored.
+         */
+        private void iterate() {
+            Node node = this.root;
+            int length = 0;
+            int piece = this.rootPiece;
+            node.addVisit();
+            this.path[length++] = node;
+
+            int winner;
+            while (true) {
+                if (node.state == WON) {
+                    // the player, that made the last move, has won
+                    winner = 3 - piece;
+                    break;
+                } else if (node.state == DRAW) {
+                    winner = 0;
+                    break;
+                }
+                Node[] children = node.children;
+                if (children == null) {
+                    // a position is expanded on its second visit, the first visit only plays a random game
+                    if (node.visits < 2) {
+                        winner = this.playout(piece);
+                        break;
+                    }
+                    children = node.expand(this.board, piece);
+                }
+                node = node.select(children, MonteCarloTreeSearch.this.exploration);
+                node.addVisit();
+                this.path[length++] = node;
+                this.board.placePiece(node.column, piece);
+                piece = 3 - piece;
+            }
+
+            // the move to path[i] was made by the root player for odd i
+            for (int i = 1; i < length; i++) {
+                int mover = i % 2 == 1 ? this.rootPiece : 3 - this.rootPiece;
+                this.path[i].addReward(winner == 0 ? 1 : winner == mover ? 2 : 0);
+            }
+        }
+
+        /**
+         * Plays random moves until the game has ended. The pieces stay on the board.
+         *
+         * @param piece The piece of the player to move.
+         * @return The piece of the winner or {@code 0} for a draw.
+         */
+        private int playout(int piece) {
+            Board board = this.board;
+            int columns = board.getColumns();
+            int fields = board.getRows() * columns;
+            while (board.getMoveCount() < fields) {
+                int column;
+                do {
+                    column = this.random.nextInt(columns);
+                } while (!board.canPlacePiece(column));
+                if (board.isWinningMove(column, piece)) {
+                    return piece;
+                }
+                board.placePiece(column, piece);
+                piece = 3 - piece;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package model.ai;
+
+import model.VierGewinnt;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the moves of a player, e.g. for the games of a {@link SelfPlayRunner}. A strategy may keep state (like a
+ * random number generator or a solver), so it is only used by one thread.
+ *
+ * @author Hannes Illy
+ */
+public interface MoveStrategy {
+
+    /**
+     * Chooses the next move of the current player of the given game. The game must not be changed.
+     *
+     * @param game The game, which has not ended.
+     * @return The column of the move.
+     */
+    int getMove(VierGewinnt game);
+
+    /**
+     * Returns a strategy, that places the pieces in random columns.
+     *
+     * @param seed The seed of the random numbers.
+     * @return The strategy.
+     */
+    static MoveStrategy random(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return game -> randomMove(game, random);
+    }
+
+    /**
+     * Returns a strategy, that wins immediately if possible and otherwise blocks an immediate win of the opponent. All
+     * other moves are random.
+     *
+     * @param seed The seed of the random numbers.
+     * @return The strategy.
+     */
+    static MoveStrategy greedy(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return game -> {
+            int piece = game.getCurrentPlayer();
+            int block = -1;
+            for (int column = 0; column < game.getColumns(); column++) {
+                if (game.isWinningMove(column, piece)) {
+                    return column;
+                } else if (block < 0 && game.isWinningMove(column, 3 - piece)) {
+                    block = column;
+                }
+            }
+            return block >= 0 ? block : randomMove(game, random);
+        };
+    }
+
+    /**
+     * Returns a strategy, that plays perfectly with the given solver. Only useful on small boards.
+     *
+     * @param solver The solver, which is only used by this strategy.
+     * @return The strategy.
+     */
+    static MoveStrategy solver(Solver solver) {
+        return solver::getBestMove;
+    }
+
+    /**
+     * Chooses a random column, in which a piece can be placed.
+     *
+     * @param game   The game, which has not ended.
+     * @param random The random number generator.
+     * @return The column.
+     */
+    private static int randomMove(VierGewinnt game, SplittableRandom random) {
+        int column;
+        do {
+            column = random.nextInt(game.getColumns());
+        } while (!game.canPlacePiece(column));
+        return column;
+    }
+}
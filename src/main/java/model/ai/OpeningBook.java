@@ -0,0 +1,228 @@
+package model.ai;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only book of exact scores for all positions up to a number of moves, read from a file that is created by the
+ * {@link OpeningBookBuilder}. The file is memory-mapped and searched in place, so opening a book needs neither time nor
+ * heap memory for the entries.
+ * <p>
+ * The file consists of a header, the sorted position keys and the scores:
+ * <pre>
+ * int magic ("VGOB"), int version, int rows, int columns, int maxMoves, int entries
+ * long[entries] keys    (sorted canonical keys, see {@link Board#getCanonicalKey()})
+ * byte[entries] scores  (from the view of the player to move, as in {@link Solver})
+ * </pre>
+ * A position and its mirror image have the same value, so only the smaller of both keys is stored.
+ * <p>
+ * A book can be used by several threads at the same time.
+ *
+ * @author Hannes Illy
+ */
+public class OpeningBook {
+    /**
+     * The first four bytes of a book file ("VGOB").
+     */
+    public static final int MAGIC = 0x56474F42;
+    /**
+     * The version of the file format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_SIZE = 6 * Integer.BYTES;
+    /**
+     * The score returned, if a position is not in the book.
+     */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * The number of rows of the board of this book.
+     */
+    private final int rows;
+    /**
+     * The number of columns of the board of this book.
+     */
+    private final int columns;
+    /**
+     * The maximum number of moves of the positions in this book.
+     */
+    private final int maxMoves;
+    /**
+     * The sorted keys of all positions (a view of the mapped file).
+     */
+    private final LongBuffer keys;
+    /**
+     * The scores of all positions, in the order of the keys (a view of the mapped file).
+     */
+    private final ByteBuffer scores;
+
+    /**
+     * Creates a book, that reads the given mapped file.
+     *
+     * @param buffer The mapped book file.
+     * @throws IOException If the file is not a valid book.
+     */
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("The file is not an opening book.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported opening book version. version = " + buffer.getInt(4));
+        }
+        this.rows = buffer.getInt(8);
+        this.columns = buffer.getInt(12);
+        this.maxMoves = buffer.getInt(16);
+        int entries = buffer.getInt(20);
+        if (entries < 0 || buffer.capacity() != HEADER_SIZE + (long) entries * (Long.BYTES + 1)) {
+            throw new IOException("The opening book is damaged. entries = " + entries);
+        }
+        this.keys = buffer.position(HEADER_SIZE).slice().asLongBuffer();
+        this.keys.limit(entries);
+        this.scores = buffer.position(HEADER_SIZE + entries * Long.BYTES).slice();
+    }
+
+    /**
+     * Opens the book in the given file. The file is mapped into memory and not read until positions are looked up.
+     *
+     * @param file The book file.
+     * @return The opening book.
+     * @throws IOException If the file cannot be read or is not a valid book.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The opening book is too large. size = " + channel.size());
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Gets the number of rows of the board of this book.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns of the board of this book.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the maximum number of moves of the positions in this book.
+     *
+     * @return The maximum number of moves.
+     */
+    public int getMaxMoves() {
+        return this.maxMoves;
+    }
+
+    /**
+     * Gets the number of positions in this book.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return this.keys.limit();
+    }
+
+    /**
+     * Looks up the score of the given game.
+     *
+     * @param game The game.
+     * @return The score from the view of the current player or {@link #NOT_FOUND} if the position is not in the book.
+     */
+    public int getScore(VierGewinnt game) {
+        if (game.hasEnded()) {
+            return NOT_FOUND;
+        }
+        return this.getScore(Solver.toBoard(game));
+    }
+
+    /**
+     * Returns a best move of the current player of the given game, if the book contains all positions after the next
+     * move. If several moves have the best score, the one nearest to the center is returned.
+     *
+     * @param game The game.
+     * @return The column of the best move or {@code -1} if the moves are not in the book.
+     */
+    public int getBestMove(VierGewinnt game) {
+        if (game.hasEnded() || game.getMoveCount() + 1 > this.maxMoves) {
+            return -1;
+        }
+        Board board = Solver.toBoard(game);
+        int piece = game.getCurrentPlayer();
+        int bestMove = -1;
+        int bestScore = Solver.INVALID_MOVE;
+        for (int column : Solver.columnOrder(board.getColumns())) {
+            int score;
+            if (!board.canPlacePiece(column)) {
+                continue;
+            } else if (board.isWinningMove(column, piece)) {
+                score = Solver.winScore(board);
+            } else {
+                board.placePiece(column, piece);
+                int childScore = board.isFull() ? 0 : this.getScore(board);
+                board.removePiece(column);
+                if (childScore == NOT_FOUND) {
+                    return -1;
+                }
+                score = -childScore;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Looks up the score of the position on the given board.
+     *
+     * @param board The position, which must not be won.
+     * @return The score from the view of the player to move or {@link #NOT_FOUND} if the position is not in the book.
+     */
+    int getScore(Board board) {
+        if (board.getRows() != this.rows || board.getColumns() != this.columns
+                || board.getMoveCount() > this.maxMoves) {
+            return NOT_FOUND;
+        }
+        long key = board.getCanonicalKey();
+        // binary search in the mapped keys
+        int low = 0;
+        int high = this.keys.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = this.keys.get(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return this.scores.get(mid);
+            }
+        }
+        return NOT_FOUND;
+    }
+}
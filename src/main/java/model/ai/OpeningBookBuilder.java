@@ -0,0 +1,232 @@
+package model.ai;
+
+import model.Board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Creates the file of an {@link OpeningBook}: all positions with up to a given number of moves, that have not ended, are
+ * solved and written to a file. A position and its mirror image are solved only once.
+ * <p>
+ * The positions are solved in parallel. Every thread uses its own {@link Solver}, but all solvers share one
+ * transposition table, so the results of the deep searches are reused by the other threads.
+ *
+ * @author Hannes Illy
+ */
+public class OpeningBookBuilder {
+    /**
+     * The number of rows of the board.
+     */
+    private final int rows;
+    /**
+     * The number of columns of the board.
+     */
+    private final int columns;
+    /**
+     * The maximum number of moves of the positions in the book.
+     */
+    private final int maxMoves;
+    /**
+     * The number of threads, that solve the positions.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * The size of the shared transposition table in MB.
+     */
+    private int tableSize = ParallelSolver.DEFAULT_TABLE_SIZE;
+    /**
+     * The number of positions, that have been solved by the running build.
+     */
+    private final AtomicInteger solvedCount = new AtomicInteger();
+
+    /**
+     * Creates a builder for a book of the given board size.
+     *
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param maxMoves The maximum number of moves of the positions in the book.
+     * @throws IllegalArgumentException If the size or the number of moves is invalid or the board has more than 254
+     *                                  fields, whose scores do not fit into the bytes of the book.
+     */
+    public OpeningBookBuilder(int rows, int columns, int maxMoves) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Invalid board size. rows = " + rows + ", columns = " + columns);
+        }
+        // the scores are stored as bytes, the highest score is a win with the first piece
+        if ((rows * columns + 1) / 2 > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("The scores of the board do not fit into a byte. rows = " + rows
+                    + ", columns = " + columns);
+        }
+        if (maxMoves < 0 || maxMoves > rows * columns) {
+            throw new IllegalArgumentException("Invalid number of moves. maxMoves = " + maxMoves);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Sets the number of threads, that solve the positions.
+     *
+     * @param threads The number of threads.
+     * @return This builder.
+     * @throws IllegalArgumentException If the number of threads is less than 1.
+     */
+    public OpeningBookBuilder setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed. threads = " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the size of the transposition table, that is shared by all threads.
+     *
+     * @param megabytes The size in MB.
+     * @return This builder.
+     * @throws IllegalArgumentException If the size is not supported by the {@link TranspositionTable}.
+     */
+    public OpeningBookBuilder setTableSize(int megabytes) {
+        if (megabytes <= 0 || megabytes > 8192) {
+            throw new IllegalArgumentException("Invalid table size. megabytes = " + megabytes);
+        }
+        this.tableSize = megabytes;
+        return this;
+    }
+
+    /**
+     * Gets the number of positions, that have been solved by the running or last build. Can be called from any
+     * thread to show the progress.
+     *
+     * @return The number of solved positions.
+     */
+    public int getSolvedCount() {
+        return this.solvedCount.get();
+    }
+
+    /**
+     * Finds and solves all positions and writes the book to the given file. An existing file is replaced.
+     *
+     * @param file The book file.
+     * @return The number of positions in the book.
+     * @throws IOException If the file cannot be written.
+     */
+    public int build(Path file) throws IOException {
+        List<int[]> positions = this.findPositions();
+        int count = positions.size();
+        long[] keys = new long[count];
+        byte[] scores = new byte[count];
+        this.solvedCount.set(0);
+
+        TranspositionTable table = new TranspositionTable(this.tableSize);
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(() -> new Solver(table));
+        ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+                Board board = this.toBoard(positions.get(i));
+                keys[i] = board.getCanonicalKey();
+                scores[i] = (byte) solvers.get().solve(board, board.getMoveCount() % 2 + 1);
+                this.solvedCount.incrementAndGet();
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The build was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A position could not be solved.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        // sort the keys for the binary search, the scores are moved with their keys
+        Integer[] indices = new Integer[count];
+        Arrays.setAll(indices, i -> i);
+        Arrays.sort(indices, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(this.rows);
+            out.writeInt(this.columns);
+            out.writeInt(this.maxMoves);
+            out.writeInt(count);
+            for (int index : indices) {
+                out.writeLong(keys[index]);
+            }
+            for (int index : indices) {
+                out.writeByte(scores[index]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds all positions with up to the maximum number of moves, which have not ended. Of a position and its mirror
+     * image only the first one found is returned.
+     *
+     * @return The moves, that lead to each position.
+     */
+    List<int[]> findPositions() {
+        List<int[]> positions = new ArrayList<>();
+        this.findPositions(Board.create(this.rows, this.columns), new int[this.maxMoves], new HashSet<>(), positions);
+        return positions;
+    }
+
+    /**
+     * Adds the given position and all positions after it to the list, if they are not known yet.
+     *
+     * @param board     The position, which has not ended. It is restored before the method returns.
+     * @param moves     The moves, that lead to the position.
+     * @param known     The canonical keys of all positions found so far.
+     * @param positions The moves of all positions found so far.
+     */
+    private void findPositions(Board board, int[] moves, Set<Long> known, List<int[]> positions) {
+        if (!known.add(board.getCanonicalKey())) {
+            // the position or its mirror image and all positions after it have been found already
+            return;
+        }
+        int moveCount = board.getMoveCount();
+        positions.add(Arrays.copyOf(moves, moveCount));
+        if (moveCount == this.maxMoves) {
+            return;
+        }
+        int piece = moveCount % 2 + 1;
+        for (int column = 0; column < this.columns; column++) {
+            if (board.canPlacePiece(column) && !board.isWinningMove(column, piece)) {
+                board.placePiece(column, piece);
+                if (!board.isFull()) {
+                    moves[moveCount] = column;
+                    this.findPositions(board, moves, known, positions);
+                }
+                board.removePiece(column);
+            }
+        }
+    }
+
+    /**
+     * Creates a board with the given moves.
+     *
+     * @param moves The moves.
+     * @return The board.
+     */
+    private Board toBoard(int[] moves) {
+        Board board = Board.create(this.rows, this.columns);
+        for (int i = 0; i < moves.length; i++) {
+            board.placePiece(moves[i], i % 2 + 1);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,271 @@
+package model.ai;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A solver, that uses several threads to compute the exact score of a position (Lazy SMP). Every thread runs a
+ * complete {@link Solver} search of the same position, but all threads share one {@link TranspositionTable} and search
+ * the columns in a different order. The threads fill the table for each other, so the first thread that finishes is
+ * usually much faster than a single thread. Every thread computes the exact score, so the result is the same as the
+ * result of a single {@link Solver}.
+ * <p>
+ * The scores are defined as in {@link Solver}. A parallel solver can only run one search at a time and has to be
+ * closed, when it is no longer used.
+ *
+ * @author Hannes Illy
+ */
+public class ParallelSolver {
+    /**
+     * The size of the transposition table of a parallel solver, that does not share its table, in MB.
+     */
+    public static final int DEFAULT_TABLE_SIZE = 64;
+
+    /**
+     * The number of search threads.
+     */
+    private final int threads;
+    /**
+     * The transposition table shared by all threads.
+     */
+    private final TranspositionTable table;
+    /**
+     * Runs the search threads.
+     */
+    private final ExecutorService executor;
+    /**
+     * The number of positions visited by each thread during the last search.
+     */
+    private final long[] nodeCounts;
+    /**
+     * The duration of the last search in nanoseconds.
+     */
+    private long elapsedTime = 0;
+
+    /**
+     * Creates a new parallel solver with the given number of threads and a shared transposition table.
+     *
+     * @param threads The number of search threads.
+     * @param table   The transposition table. It may also be used by other solvers for boards of the same size.
+     * @throws IllegalArgumentException If the number of threads is not positive.
+     */
+    public ParallelSolver(int threads, TranspositionTable table) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Illegal number of threads. threads = " + threads);
+        }
+        this.threads = threads;
+        this.table = table;
+        this.nodeCounts = new long[threads];
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ParallelSolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new parallel solver with the given number of threads and its own transposition table of the default
+     * size.
+     *
+     * @param threads The number of search threads.
+     */
+    public ParallelSolver(int threads) {
+        this(threads, new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * Creates a new parallel solver with one thread per available processor.
+     */
+    public ParallelSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Computes the exact score of the given game from the view of the current player. The game is not changed.
+     *
+     * @param game The game that is solved.
+     * @return The score of the position.
+     * @throws IllegalStateException If the game has already ended.
+     */
+    public int solve(VierGewinnt game) {
+        return this.solve(game, -1);
+    }
+
+    /**
+     * Returns a best move of the current player of the given game. If several moves have the best score, the one
+     * nearest to the center is returned. The moves are solved one after another, each with all threads.
+     *
+     * @param game The game, for which a move is searched.
+     * @return The column of the best move.
+     * @throws IllegalStateException If the game has already ended.
+     */
+    public int getBestMove(VierGewinnt game) {
+        Board board = Solver.toBoard(game);
+        int piece = game.getCurrentPlayer();
+        int bestMove = -1;
+        int bestScore = Solver.INVALID_MOVE;
+        for (int column : Solver.columnOrder(board.getColumns())) {
+            int score;
+            if (!board.canPlacePiece(column)) {
+                continue;
+            } else if (board.isWinningMove(column, piece)) {
+                score = Solver.winScore(board);
+            } else if (board.getMoveCount() + 1 == board.getRows() * board.getColumns()) {
+                score = 0;
+            } else {
+                score = -this.solve(game, column);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Solves the position of the given game with all threads.
+     *
+     * @param game   The game.
+     * @param column A column, in which a piece is placed before the position is solved, or {@code -1}.
+     * @return The score of the position from the view of the player to move.
+     */
+    private int solve(VierGewinnt game, int column) {
+        long start = System.nanoTime();
+        CompletionService<Integer> searches = new ExecutorCompletionService<>(this.executor);
+        Solver[] solvers = new Solver[this.threads];
+        for (int i = 0; i < this.threads; i++) {
+            Board board = Solver.toBoard(game);
+            int piece = game.getCurrentPlayer();
+            if (column >= 0) {
+                board.placePiece(column, piece);
+                piece = 3 - piece;
+            }
+            solvers[i] = new Solver(this.table);
+            solvers[i].setOrderRotation(i);
+            Solver solver = solvers[i];
+            int player = piece;
+            searches.submit(() -> solver.solve(board, player));
+        }
+
+        Integer score = null;
+        int finished = 0;
+        try {
+            // the first search that finishes has the exact score
+            while (score == null && finished < this.threads) {
+                score = this.getResult(searches);
+                finished++;
+            }
+        } finally {
+            for (Solver solver : solvers) {
+                solver.stop();
+            }
+            while (finished < this.threads) {
+                this.getResult(searches);
+                finished++;
+            }
+            this.elapsedTime = System.nanoTime() - start;
+            for (int i = 0; i < this.threads; i++) {
+                this.nodeCounts[i] = solvers[i].getNodeCount();
+            }
+        }
+        if (score == null) {
+            throw new CancellationException("All searches were stopped.");
+        }
+        return score;
+    }
+
+    /**
+     * Waits for the next search to finish and returns its score.
+     *
+     * @param searches The running searches.
+     * @return The score or {@code null} if the search was stopped.
+     */
+    private Integer getResult(CompletionService<Integer> searches) {
+        try {
+            return searches.take().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                return null;
+            }
+            throw new IllegalStateException("The search failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The search was interrupted.");
+        }
+    }
+
+    /**
+     * Gets the number of search threads.
+     *
+     * @return The number of threads.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Gets the transposition table, that is shared by all threads.
+     *
+     * @return The transposition table.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gets the duration of the last search.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of positions, that the given thread visited during the last search.
+     *
+     * @param thread The number of the thread (from 0 to getThreads() - 1).
+     * @return The number of visited positions.
+     */
+    public long getNodeCount(int thread) {
+        return this.nodeCounts[thread];
+    }
+
+    /**
+     * Gets the number of positions, that all threads visited during the last search.
+     *
+     * @return The number of visited positions.
+     */
+    public long getNodeCount() {
+        long sum = 0;
+        for (long count : this.nodeCounts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the number of positions per second, that the given thread visited during the last search.
+     *
+     * @param thread The number of the thread (from 0 to getThreads() - 1).
+     * @return The number of visited positions per second.
+     */
+    public double getNodesPerSecond(int thread) {
+        return this.elapsedTime == 0 ? 0 : this.nodeCounts[thread] * 1e9 / this.elapsedTime;
+    }
+
+    /**
+     * Stops the search threads.
+     */
+    public void close() {
+        this.executor.shutdownNow();
+    }
+}
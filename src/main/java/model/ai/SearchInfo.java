@@ -0,0 +1,134 @@
+package model.ai;
+
+import java.util.Arrays;
+
+/**
+ * The result of one iteration of an {@link IterativeDeepeningSearch}: the search depth, the score, the number of visited
+ * positions, the time and the principal variation (the expected moves of both players).
+ * <p>
+ * Scores are defined as in {@link Solver}. A search with limited depth cannot tell a draw from a position, which is
+ * not decided within the depth, so the score 0 is only exact if the iteration {@link #isExact() is exact}. Positive and
+ * negative scores are always proven wins or losses.
+ *
+ * @author Hannes Illy
+ */
+public class SearchInfo {
+    /**
+     * The maximum number of moves searched in this iteration.
+     */
+    private final int depth;
+    /**
+     * The score of the position from the view of the player to move.
+     */
+    private final int score;
+    /**
+     * If the score is exact, because the search was not limited by the depth.
+     */
+    private final boolean exact;
+    /**
+     * The number of positions visited in this iteration.
+     */
+    private final long nodeCount;
+    /**
+     * The duration of this iteration in nanoseconds.
+     */
+    private final long elapsedTime;
+    /**
+     * The columns of the principal variation, starting with the best move.
+     */
+    private final int[] principalVariation;
+
+    /**
+     * Creates the result of one iteration.
+     *
+     * @param depth              The search depth.
+     * @param score              The score from the view of the player to move.
+     * @param exact              If the score is exact.
+     * @param nodeCount          The number of visited positions.
+     * @param elapsedTime        The duration in nanoseconds.
+     * @param principalVariation The principal variation. The array is not copied.
+     */
+    public SearchInfo(int depth, int score, boolean exact, long nodeCount, long elapsedTime, int[] principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.exact = exact;
+        this.nodeCount = nodeCount;
+        this.elapsedTime = elapsedTime;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * Gets the search depth of this iteration.
+     *
+     * @return The maximum number of moves searched.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Gets the score of the position.
+     *
+     * @return The score from the view of the player to move.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Checks if the score is exact. A score is exact, if no line of the search was cut off by the depth.
+     *
+     * @return If the score is exact.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    /**
+     * Gets the number of positions, that were visited in this iteration.
+     *
+     * @return The number of visited positions.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Gets the duration of this iteration.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the best move of this iteration.
+     *
+     * @return The column of the best move or {@code -1} if no move was searched.
+     */
+    public int getBestMove() {
+        return this.principalVariation.length > 0 ? this.principalVariation[0] : -1;
+    }
+
+    /**
+     * Gets the principal variation: the best move followed by the expected moves of both players.
+     *
+     * @return A copy of the columns of the principal variation.
+     */
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchInfo{" +
+                "depth=" + depth +
+                ", score=" + score +
+                ", exact=" + exact +
+                ", nodeCount=" + nodeCount +
+                ", elapsedTime=" + elapsedTime +
+                ", principalVariation=" + Arrays.toString(principalVariation) +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package model.ai;
+
+/**
+ * The statistics of the games of a {@link SelfPlayRunner}: the number of wins of each player, the number of draws and
+ * the distribution of the game lengths. Every thread counts its own games and the results are merged at the end.
+ *
+ * @author Hannes Illy
+ */
+public class SelfPlayResult {
+    /**
+     * The number of games with each result: index 0 = draw, 1 = player 1 won, 2 = player 2 won.
+     */
+    private final long[] results = new long[3];
+    /**
+     * The number of games with each number of moves.
+     */
+    private final long[] lengths;
+    /**
+     * The duration of the games in nanoseconds.
+     */
+    private long elapsedTime = 0;
+
+    /**
+     * Creates empty statistics for games with up to the given number of moves.
+     *
+     * @param maxMoves The maximum number of moves of a game (the number of fields of the board).
+     */
+    public SelfPlayResult(int maxMoves) {
+        this.lengths = new long[maxMoves + 1];
+    }
+
+    /**
+     * Counts a finished game.
+     *
+     * @param winningPlayer The winner (1 or 2) or {@code 0} for a draw.
+     * @param moves         The number of moves of the game.
+     */
+    public void add(int winningPlayer, int moves) {
+        this.results[winningPlayer]++;
+        this.lengths[moves]++;
+    }
+
+    /**
+     * Adds the games of the given statistics to these statistics.
+     *
+     * @param other The statistics of games on a board of the same size.
+     * @throws IllegalArgumentException If the other statistics are for another board size.
+     */
+    public void merge(SelfPlayResult other) {
+        if (other.lengths.length != this.lengths.length) {
+            throw new IllegalArgumentException("The statistics are for different board sizes.");
+        }
+        for (int i = 0; i < this.results.length; i++) {
+            this.results[i] += other.results[i];
+        }
+        for (int i = 0; i < this.lengths.length; i++) {
+            this.lengths[i] += other.lengths[i];
+        }
+    }
+
+    /**
+     * Sets the duration of the games.
+     *
+     * @param elapsedTime The duration in nanoseconds.
+     */
+    void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return The number of games.
+     */
+    public long getGames() {
+        return this.results[0] + this.results[1] + this.results[2];
+    }
+
+    /**
+     * Gets the number of games, that the given player won.
+     *
+     * @param player The player (1 or 2).
+     * @return The number of won games.
+     */
+    public long getWins(int player) {
+        return this.results[player];
+    }
+
+    /**
+     * Gets the number of games, that ended in a draw.
+     *
+     * @return The number of draws.
+     */
+    public long getDraws() {
+        return this.results[0];
+    }
+
+    /**
+     * Gets the number of games, that ended after the given number of moves.
+     *
+     * @param moves The number of moves.
+     * @return The number of games or {@code 0} if no game can have this length.
+     */
+    public long getGames(int moves) {
+        return moves >= 0 && moves < this.lengths.length ? this.lengths[moves] : 0;
+    }
+
+    /**
+     * Gets the average number of moves of all games.
+     *
+     * @return The average number of moves or {@code 0} if there are no games.
+     */
+    public double getAverageLength() {
+        long games = 0;
+        long moves = 0;
+        for (int i = 0; i < this.lengths.length; i++) {
+            games += this.lengths[i];
+            moves += i * this.lengths[i];
+        }
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * Gets the duration of the games.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of games per second.
+     *
+     * @return The number of games per second.
+     */
+    public double getGamesPerSecond() {
+        return this.elapsedTime == 0 ? 0 : this.getGames() * 1e9 / this.elapsedTime;
+    }
+
+    @Override
+    public String toString() {
+        long games = Math.max(this.getGames(), 1);
+        return String.format("%d games, player 1: %.1f %%, player 2: %.1f %%, draw: %.1f %%, "
+                        + "%.1f moves per game, %.0f games/s",
+                this.getGames(), 100.0 * this.results[1] / games, 100.0 * this.results[2] / games,
+                100.0 * this.results[0] / games, this.getAverageLength(), this.getGamesPerSecond());
+    }
+}
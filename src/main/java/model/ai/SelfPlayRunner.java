@@ -0,0 +1,229 @@
+package model.ai;
+
+import model.VierGewinnt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Plays many games between two {@link MoveStrategy strategies} on all processors without user interface. Every thread
+ * reuses one game and its own strategies for all of its games, so no objects are created during the games. The
+ * results are counted per thread and merged into one {@link SelfPlayResult}.
+ * <p>
+ * The moves of all games can be written to a stream. Every game is written as one byte with the result (0 = draw, 1 or
+ * 2 = winner), the number of moves as unsigned variable-length integer (7 bits per byte, lowest bits first) and the
+ * columns of the moves with 4 bits each, two moves per byte with the first move in the high bits. The games of
+ * different threads are written in blocks, so the order of the games is not defined.
+ *
+ * @author Hannes Illy
+ */
+public class SelfPlayRunner {
+    /**
+     * The number of games, that a thread takes at once.
+     */
+    private static final int BATCH_SIZE = 256;
+    /**
+     * The size of the output buffer of each thread.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of columns of the board.
+     */
+    private final int columns;
+    /**
+     * The number of rows of the board.
+     */
+    private final int rows;
+    /**
+     * The number of threads.
+     */
+    private final int threads;
+    /**
+     * Creates the strategy of player 1 for each thread.
+     */
+    private final IntFunction<MoveStrategy> player1;
+    /**
+     * Creates the strategy of player 2 for each thread.
+     */
+    private final IntFunction<MoveStrategy> player2;
+
+    /**
+     * Creates a runner for games on a board of the given size.
+     *
+     * @param columns The number of columns.
+     * @param rows    The number of rows.
+     * @param threads The number of threads.
+     * @param player1 Creates the strategy of player 1 for the thread with the given number.
+     * @param player2 Creates the strategy of player 2 for the thread with the given number.
+     * @throws IllegalArgumentException If the number of threads is not positive.
+     */
+    public SelfPlayRunner(int columns, int rows, int threads,
+                          IntFunction<MoveStrategy> player1, IntFunction<MoveStrategy> player2) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Illegal number of threads. threads = " + threads);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.threads = threads;
+        this.player1 = player1;
+        this.player2 = player2;
+    }
+
+    /**
+     * Plays the given number of games.
+     *
+     * @param games The number of games.
+     * @return The results of the games.
+     */
+    public SelfPlayResult run(long games) {
+        try {
+            return this.run(games, null);
+        } catch (IOException e) {
+            // nothing is written
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Plays the given number of games and writes their moves to the given stream.
+     *
+     * @param games The number of games.
+     * @param out   The stream for the moves or {@code null} if the moves are not written. The stream is not closed.
+     * @return The results of the games.
+     * @throws IOException              If the moves cannot be written.
+     * @throws IllegalArgumentException If the moves are written and the board has more than 16 columns.
+     */
+    public SelfPlayResult run(long games, OutputStream out) throws IOException {
+        if (out != null && this.columns > 16) {
+            throw new IllegalArgumentException("Only moves of up to 16 columns can be written. columns = "
+                    + this.columns);
+        }
+        long start = System.nanoTime();
+        AtomicLong next = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "SelfPlayRunner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<SelfPlayResult>> futures = new ArrayList<>();
+        for (int i = 0; i < this.threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> this.play(thread, games, next, out)));
+        }
+
+        SelfPlayResult result = new SelfPlayResult(this.rows * this.columns);
+        try {
+            for (Future<SelfPlayResult> future : futures) {
+                result.merge(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("A game failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The games were interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (out != null) {
+            out.flush();
+        }
+        result.setElapsedTime(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Plays games in one thread until all games have been taken.
+     *
+     * @param thread The number of the thread.
+     * @param games  The number of games of all threads.
+     * @param next   The number of the next game, that has not been taken.
+     * @param out    The stream for the moves or {@code null}.
+     * @return The results of the games of this thread.
+     * @throws IOException If the moves cannot be written.
+     */
+    private SelfPlayResult play(int thread, long games, AtomicLong next, OutputStream out) throws IOException {
+        VierGewinnt game = new VierGewinnt(this.columns, this.rows);
+        MoveStrategy[] players = {null, this.player1.apply(thread), this.player2.apply(thread)};
+        SelfPlayResult result = new SelfPlayResult(this.rows * this.columns);
+        int maxGameSize = 1 + 5 + (this.rows * this.columns + 1) / 2;
+        byte[] buffer = out == null ? null : new byte[Math.max(BUFFER_SIZE, maxGameSize)];
+        int length = 0;
+
+        long first;
+        while ((first = next.getAndAdd(BATCH_SIZE)) < games) {
+            long last = Math.min(first + BATCH_SIZE, games);
+            for (long i = first; i < last; i++) {
+                game.reset();
+                while (!game.hasEnded()) {
+                    int column = players[game.getCurrentPlayer()].getMove(game);
+                    if (!game.placePiece(column)) {
+                        throw new IllegalStateException("The strategy chose an illegal move. column = " + column);
+                    }
+                }
+                result.add(game.getWinningPlayer(), game.getMoveCount());
+
+                if (buffer != null) {
+                    if (length + maxGameSize > buffer.length) {
+                        write(out, buffer, length);
+                        length = 0;
+                    }
+                    length = encode(game, buffer, length);
+                }
+            }
+        }
+        if (buffer != null) {
+            write(out, buffer, length);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the moves of the given game to the buffer in the format of the stream.
+     *
+     * @param game   The game, which has ended.
+     * @param buffer The buffer.
+     * @param offset The index of the first byte, that is written.
+     * @return The index after the last written byte.
+     */
+    static int encode(VierGewinnt game, byte[] buffer, int offset) {
+        buffer[offset++] = (byte) game.getWinningPlayer();
+        int moves = game.getMoveCount();
+        int value = moves;
+        while (value >= 0x80) {
+            buffer[offset++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        for (int i = 0; i < moves; i += 2) {
+            int second = i + 1 < moves ? game.getMove(i + 1) : 0;
+            buffer[offset++] = (byte) (game.getMove(i) << 4 | second);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes the buffer to the stream, that is shared by all threads.
+     *
+     * @param out    The stream.
+     * @param buffer The buffer.
+     * @param length The number of bytes, that are written.
+     * @throws IOException If the bytes cannot be written.
+     */
+    private static void write(OutputStream out, byte[] buffer, int length) throws IOException {
+        synchronized (out) {
+            out.write(buffer, 0, length);
+        }
+    }
+}
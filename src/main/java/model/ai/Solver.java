@@ -0,0 +1,364 @@
+package model.ai;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * A solver that computes the exact game-theoretic value of a position of {@link VierGewinnt} with a negamax search and
+ * alpha-beta pruning. Moves are searched from the center to the outside and immediate wins are checked before any move
+ * is searched. Results are cached in a {@link TranspositionTable}, which can be shared with other solvers, and the exact
+ * score is found with a sequence of null-window searches.
+ * <p>
+ * The score of a position is given from the view of the player to move:
+ * <ul>
+ * <li>{@code 0} if the game ends in a draw with perfect play,</li>
+ * <li>a positive score if the player to move wins: the score is one more than the number of pieces the winner has
+ * left after the winning move, so a player that wins with their last piece gets a score of 1,</li>
+ * <li>a negative score if the player to move loses, with the score of the opponent negated.</li>
+ * </ul>
+ * <p>
+ * A solver is not thread-safe. Every thread has to use its own solver, but solvers on different threads may share one
+ * transposition table.
+ *
+ * @author Hannes Illy
+ */
+public class Solver {
+    /**
+     * The score of a column, in which no piece can be placed.
+     */
+    public static final int INVALID_MOVE = Integer.MIN_VALUE;
+    /**
+     * The size of the transposition table of a solver, that does not share its table, in MB.
+     */
+    public static final int DEFAULT_TABLE_SIZE = 16;
+
+    /**
+     * The cache for the results of visited positions.
+     */
+    private final TranspositionTable table;
+    /**
+     * The number of positions visited by the searches of this solver.
+     */
+    private long nodeCount = 0;
+    /**
+     * The number of places, by which the center-first column order is rotated.
+     */
+    private int orderRotation = 0;
+    /**
+     * If the search should stop as soon as possible. Can be set by other threads.
+     */
+    private volatile boolean stopped = false;
+    /**
+     * The book, in which positions are looked up before they are searched, or {@code null}.
+     */
+    private OpeningBook openingBook = null;
+
+    /**
+     * Creates a new solver with its own transposition table of the default size.
+     */
+    public Solver() {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * Creates a new solver, that uses the given transposition table. The table may be shared with other solvers, but
+     * only for boards of the same size.
+     *
+     * @param table The transposition table.
+     */
+    public Solver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Gets the transposition table of this solver.
+     *
+     * @return The transposition table.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Sets the opening book of this solver. Positions, that are in the book, are not searched. The book must contain
+     * exact scores, e.g. a book created by the {@link OpeningBookBuilder}.
+     *
+     * @param openingBook The opening book or {@code null} to search all positions.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Computes the exact score of the given game from the view of the current player. The game is not changed.
+     *
+     * @param game The game that is solved.
+     * @return The score of the position.
+     * @throws IllegalStateException If the game has already ended.
+     * @throws CancellationException If the solver was stopped.
+     */
+    public int solve(VierGewinnt game) {
+        return this.solve(toBoard(game), game.getCurrentPlayer());
+    }
+
+    /**
+     * Computes the exact score of every column of the given game from the view of the current player. The score of a
+     * column is the score of the position after placing the piece, seen by the current player.
+     *
+     * @param game The game that is analyzed.
+     * @return The score of each column or {@link #INVALID_MOVE} if the column is full.
+     * @throws IllegalStateException If the game has already ended.
+     * @throws CancellationException If the solver was stopped.
+     */
+    public int[] analyze(VierGewinnt game) {
+        Board board = toBoard(game);
+        int piece = game.getCurrentPlayer();
+        int[] scores = new int[board.getColumns()];
+        for (int column = 0; column < scores.length; column++) {
+            scores[column] = this.scoreMove(board, piece, column);
+        }
+        return scores;
+    }
+
+    /**
+     * Returns a best move of the current player of the given game. If several moves have the best score, the one
+     * nearest to the center is returned.
+     *
+     * @param game The game, for which a move is searched.
+     * @return The column of the best move.
+     * @throws IllegalStateException If the game has already ended.
+     * @throws CancellationException If the solver was stopped.
+     */
+    public int getBestMove(VierGewinnt game) {
+        Board board = toBoard(game);
+        int piece = game.getCurrentPlayer();
+        int bestMove = -1;
+        int bestScore = INVALID_MOVE;
+        for (int column : columnOrder(board.getColumns())) {
+            int score = this.scoreMove(board, piece, column);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Gets the number of positions, that were visited by all searches of this solver.
+     *
+     * @return The number of visited positions.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Resets the number of visited positions.
+     */
+    public void resetNodeCount() {
+        this.nodeCount = 0;
+    }
+
+    /**
+     * Stops the running and all future searches of this solver. A stopped search throws a
+     * {@link CancellationException} instead of returning a score. Can be called from any thread.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Rotates the center-first column order by the given number of places. Solvers, that share a transposition table,
+     * search different moves first with different rotations.
+     *
+     * @param rotation The number of places.
+     */
+    void setOrderRotation(int rotation) {
+        this.orderRotation = rotation;
+    }
+
+    /**
+     * Computes the exact score of the position on the given board for the player with the given piece.
+     *
+     * @param board The position. It is changed during the search, but restored afterwards.
+     * @param piece The piece of the player to move.
+     * @return The score of the position.
+     */
+    int solve(Board board, int piece) {
+        if (this.openingBook != null) {
+            int score = this.openingBook.getScore(board);
+            if (score != OpeningBook.NOT_FOUND) {
+                return score;
+            }
+        }
+        int[] order = columnOrder(board.getColumns());
+        if (this.orderRotation != 0) {
+            int[] rotated = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                rotated[i] = order[(i + this.orderRotation) % order.length];
+            }
+            order = rotated;
+        }
+        int fields = board.getRows() * board.getColumns();
+        int min = -(fields - board.getMoveCount()) / 2;
+        int max = (fields + 1 - board.getMoveCount()) / 2;
+        // narrow the range of the score with null-window searches, which cut off much earlier than a full window
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            // probe closer to 0 first, where most scores are
+            if (med <= 0 && min / 2 < med) {
+                med = min / 2;
+            } else if (med >= 0 && max / 2 > med) {
+                med = max / 2;
+            }
+            int score = this.negamax(board, piece, order, med, med + 1);
+            if (score <= med) {
+                max = score;
+            } else {
+                min = score;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Computes the score of placing the given piece in the given column.
+     *
+     * @param board  The position. It is changed during the search, but restored afterwards.
+     * @param piece  The piece of the player to move.
+     * @param column The column of the move.
+     * @return The score of the move or {@link #INVALID_MOVE} if the column is full.
+     */
+    int scoreMove(Board board, int piece, int column) {
+        if (!board.canPlacePiece(column)) {
+            return INVALID_MOVE;
+        }
+        if (board.isWinningMove(column, piece)) {
+            return winScore(board);
+        }
+        board.placePiece(column, piece);
+        int score = board.isFull() ? 0 : -this.solve(board, 3 - piece);
+        board.removePiece(column);
+        return score;
+    }
+
+    /**
+     * The negamax search with alpha-beta pruning. Returns the exact score if it lies within the window
+     * {@code (alpha, beta)}, otherwise an upper bound ({@code <= alpha}) or lower bound ({@code >= beta}).
+     *
+     * @param board The position, which must not be full or won. It is restored before the method returns.
+     * @param piece The piece of the player to move.
+     * @param order The columns in the order in which they are searched.
+     * @param alpha The lower bound of the search window.
+     * @param beta  The upper bound of the search window.
+     * @return The score of the position within the described bounds.
+     * @throws CancellationException If the solver was stopped.
+     */
+    private int negamax(Board board, int piece, int[] order, int alpha, int beta) {
+        if ((++this.nodeCount & 0x3FF) == 0 && this.stopped) {
+            throw new CancellationException("The search was stopped.");
+        }
+        int alphaOriginal = alpha;
+
+        // check for an immediate win
+        for (int column : order) {
+            if (board.isWinningMove(column, piece)) {
+                return winScore(board);
+            }
+        }
+
+        // the player cannot win with the next piece, so the score is at most the score of winning one move later
+        int fields = board.getRows() * board.getColumns();
+        int max = (fields - 1 - board.getMoveCount()) / 2;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        // use the bounds of an earlier search of this position or its mirror image
+        long key = board.getCanonicalKey();
+        long entry = this.table.probe(key);
+        if (entry != TranspositionTable.EMPTY) {
+            int score = TranspositionTable.getScore(entry);
+            switch (TranspositionTable.getBound(entry)) {
+                case TranspositionTable.EXACT:
+                    return score;
+                case TranspositionTable.LOWER_BOUND:
+                    alpha = Math.max(alpha, score);
+                    break;
+                case TranspositionTable.UPPER_BOUND:
+                    beta = Math.min(beta, score);
+                    break;
+            }
+            if (alpha >= beta) {
+                return score;
+            }
+        }
+
+        int depth = fields - board.getMoveCount();
+        for (int column : order) {
+            if (board.placePiece(column, piece)) {
+                int score = board.isFull() ? 0 : -this.negamax(board, 3 - piece, order, -beta, -alpha);
+                board.removePiece(column);
+                if (score >= beta) {
+                    this.table.store(key, depth, TranspositionTable.LOWER_BOUND, score);
+                    return score;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+            }
+        }
+        int bound = alpha > alphaOriginal ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.table.store(key, depth, bound, alpha);
+        return alpha;
+    }
+
+    /**
+     * Returns the score of the player to move, if this player wins with the next piece.
+     *
+     * @param board The position before the winning piece is placed.
+     * @return The score of the immediate win.
+     */
+    static int winScore(Board board) {
+        return (board.getRows() * board.getColumns() + 1 - board.getMoveCount()) / 2;
+    }
+
+    /**
+     * Returns the columns ordered from the center to the outside, e.g. 3, 2, 4, 1, 5, 0, 6 for seven columns. Central
+     * columns are part of more lines, so they are usually the better moves and cause earlier cut-offs.
+     *
+     * @param columns The number of columns.
+     * @return The ordered columns.
+     */
+    static int[] columnOrder(int columns) {
+        int[] order = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            order[i] = columns / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        return order;
+    }
+
+    /**
+     * Copies the position of the given game to a new board. The pieces are placed in the order of the moves of the game.
+     *
+     * @param game The game that is copied.
+     * @return A board with the position of the game.
+     * @throws IllegalStateException If the game has already ended.
+     */
+    static Board toBoard(VierGewinnt game) {
+        if (game.hasEnded()) {
+            throw new IllegalStateException("The game has already ended.");
+        }
+        Board board = Board.create(game.getRows(), game.getColumns());
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            board.placePiece(game.getMove(i), i % 2 + 1);
+        }
+        return board;
+    }
+}
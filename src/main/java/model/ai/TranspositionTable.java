@@ -0,0 +1,176 @@
+package model.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-size hash table for search results, indexed by the position key of the board. Every entry is packed into a
+ * single {@code long} of a preallocated array:
+ * <pre>
+ *  63                24 23       14 13  12 11        0
+ * +--------------------+-----------+------+-----------+
+ * |  key (upper bits)  |   depth   | bound|   score   |
+ * +--------------------+-----------+------+-----------+
+ * </pre>
+ * The depth is the number of empty fields of the position, which is a measure of the work that was needed for the
+ * result. A new result replaces an entry with the same or a smaller depth (depth-preferred replacement).
+ * <p>
+ * The table can be shared by several threads without locks: each entry is read and written as one atomic word, so a
+ * probe either sees a complete entry or none. Concurrent stores to the same slot may overwrite each other, which only
+ * loses a result but never corrupts one.
+ *
+ * @author Hannes Illy
+ */
+public class TranspositionTable {
+    /**
+     * The score is exact.
+     */
+    public static final int EXACT = 1;
+    /**
+     * The score is a lower bound, the exact score is greater or equal.
+     */
+    public static final int LOWER_BOUND = 2;
+    /**
+     * The score is an upper bound, the exact score is less or equal.
+     */
+    public static final int UPPER_BOUND = 3;
+    /**
+     * The value returned by {@code probe}, if there is no entry for a key.
+     */
+    public static final long EMPTY = 0L;
+
+    private static final int SCORE_BITS = 12;
+    private static final int BOUND_BITS = 2;
+    private static final int DEPTH_BITS = 10;
+    private static final int BOUND_SHIFT = SCORE_BITS;
+    private static final int DEPTH_SHIFT = BOUND_SHIFT + BOUND_BITS;
+    private static final int KEY_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+    /**
+     * Gives atomic (opaque) access to the elements of the entry array.
+     */
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The entries of the table.
+     */
+    private final long[] entries;
+    /**
+     * The mask to compute the index of a key (the size of the table is a power of two).
+     */
+    private final int indexMask;
+
+    /**
+     * Creates a new transposition table that uses at most the given amount of memory. The number of entries is the
+     * largest power of two that fits.
+     *
+     * @param megabytes The size of the table in MB.
+     * @throws IllegalArgumentException If the size is not positive or too large for one array.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0 || megabytes > 8192) {
+            throw new IllegalArgumentException("Illegal table size. megabytes = " + megabytes);
+        }
+        long size = Long.highestOneBit((long) megabytes * 1024 * 1024 / Long.BYTES);
+        // the largest power of two an array can hold
+        size = Math.min(size, 1L << 30);
+        this.entries = new long[(int) size];
+        this.indexMask = (int) size - 1;
+    }
+
+    /**
+     * Returns the number of entries of this table.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * Looks up the entry for the given key.
+     *
+     * @param key The position key.
+     * @return The packed entry or {@link #EMPTY} if there is no entry for the key.
+     */
+    public long probe(long key) {
+        long entry = (long) ENTRIES.getOpaque(this.entries, this.index(key));
+        if (entry != EMPTY && (entry >>> KEY_SHIFT) == (key >>> KEY_SHIFT)) {
+            return entry;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Stores a search result, unless the slot of the key holds a result of another position with a greater depth.
+     *
+     * @param key   The position key.
+     * @param depth The number of empty fields of the position. Larger values are stored as the maximum depth.
+     * @param bound The type of the score: {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     * @param score The score.
+     */
+    public void store(long key, int depth, int bound, int score) {
+        int index = this.index(key);
+        long old = (long) ENTRIES.getOpaque(this.entries, index);
+        depth = Math.min(depth, MAX_DEPTH);
+        if (old != EMPTY && (old >>> KEY_SHIFT) != (key >>> KEY_SHIFT) && getDepth(old) > depth) {
+            return;
+        }
+        long entry = (key >>> KEY_SHIFT << KEY_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | (score + SCORE_OFFSET);
+        ENTRIES.setOpaque(this.entries, index, entry);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            ENTRIES.setOpaque(this.entries, i, EMPTY);
+        }
+    }
+
+    /**
+     * Returns the score of the given entry.
+     *
+     * @param entry A packed entry.
+     * @return The score.
+     */
+    public static int getScore(long entry) {
+        return (int) (entry & ((1 << SCORE_BITS) - 1)) - SCORE_OFFSET;
+    }
+
+    /**
+     * Returns the bound type of the given entry.
+     *
+     * @param entry A packed entry.
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public static int getBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1);
+    }
+
+    /**
+     * Returns the depth of the given entry.
+     *
+     * @param entry A packed entry.
+     * @return The number of empty fields of the stored position.
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * Computes the index of a key.
+     *
+     * @param key The position key.
+     * @return The index in the entry array.
+     */
+    private int index(long key) {
+        return (int) key & this.indexMask;
+    }
+}
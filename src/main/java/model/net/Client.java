@@ -10,6 +10,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.concurrent.Semaphore;
 
 /**
  * Creates a new client, that manages communication to the server and simulates a game.
@@ -36,7 +37,12 @@ public class Client implements Runnable {
     /**
      * Indicates whether the client should stop running.
      */
-    private boolean isClosed;
+    private volatile boolean isClosed;
+    /**
+     * Released by the decoder, when an action arrives or the connection ends, so the thread of the client waits
+     * without polling.
+     */
+    private final Semaphore signals = new Semaphore(0);
     
     /**
      * Creates a new client that connects to a server and manages data transfer.
@@ -57,7 +63,8 @@ public class Client implements Runnable {
         NewPlayerAction sendName = new NewPlayerAction(name);
         out.send(sendName);
 
-        new Thread(in).start();
+        in.setListener(signals::release);
+        ConnectionThreads.start(in, "ActionInputDecoder-" + name);
     }
 
     /**
@@ -71,11 +78,20 @@ public class Client implements Runnable {
         this(address, 46841, name, gameInputHandler);
     }
 
+    /**
+     * Handles the actions of the server, until the client is closed. The client can be run by a virtual thread (see
+     * {@link ConnectionThreads}), because it waits for the actions without holding a lock.
+     */
     @Override
     public void run() {
         Action currentAction;
         while (!isClosed) {
-            if ((currentAction = in.getAction()) != null) {
+            try {
+                signals.acquire();
+            } catch (InterruptedException e) {
+                break;
+            }
+            while (!isClosed && (currentAction = in.getAction()) != null) {
                 switch (currentAction.getType()) {
                     case Action.TYPE_NEW_PLAYER:
                         NewPlayerAction newPlayerAction = (NewPlayerAction) currentAction;
@@ -116,6 +132,8 @@ public class Client implements Runnable {
         Action close = new ExitAction(this.name, ExitAction.PLAYER_EXIT);
         out.send(close);
         isClosed = true;
+        // wakes up the thread
+        signals.release();
     }
 
 }
@@ -0,0 +1,111 @@
+package model.net;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Starts the threads, that read the connections of the clients and the server. The threads are platform threads or,
+ * if the virtual mode is enabled and the runtime supports it (Java 21 or later), virtual threads. A virtual thread
+ * does not occupy a platform thread, while it waits for data, so blocking reads scale to many thousands of connections.
+ * <p>
+ * Virtual threads are created with reflection, so the code can be compiled for Java 11. The mode is enabled with the
+ * system property {@value #VIRTUAL_THREADS_PROPERTY} ({@code -Dviergewinnt.virtualThreads=true}) or with
+ * {@link #setVirtual(boolean)}.
+ *
+ * @author Hannes Illy
+ */
+public final class ConnectionThreads {
+    /**
+     * The system property, that enables virtual threads.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "viergewinnt.virtualThreads";
+
+    /**
+     * The method {@code Thread.ofVirtual()} or {@code null} if virtual threads are not supported.
+     */
+    private static final Method OF_VIRTUAL;
+    /**
+     * The method {@code Thread.Builder.unstarted(Runnable)} or {@code null} if virtual threads are not supported.
+     */
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+            // fails on Java 19 and 20 without preview features
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+            unstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    /**
+     * If virtual threads should be used.
+     */
+    private static volatile boolean virtual = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+
+    /**
+     * Utility class.
+     */
+    private ConnectionThreads() {
+    }
+
+    /**
+     * Checks if the runtime supports virtual threads.
+     *
+     * @return If virtual threads are supported.
+     */
+    public static boolean isVirtualSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Checks if new threads are virtual threads: the virtual mode is enabled and supported.
+     *
+     * @return If virtual threads are used.
+     */
+    public static boolean isVirtual() {
+        return virtual && isVirtualSupported();
+    }
+
+    /**
+     * Enables or disables the virtual mode. If the runtime does not support virtual threads, platform threads are used
+     * anyway.
+     *
+     * @param virtual If virtual threads should be used.
+     */
+    public static void setVirtual(boolean virtual) {
+        ConnectionThreads.virtual = virtual;
+    }
+
+    /**
+     * Starts a thread, that executes the task. It is a virtual thread, if virtual threads are used, or a platform
+     * thread otherwise.
+     *
+     * @param task The task.
+     * @param name The name of the thread.
+     * @return The started thread.
+     */
+    public static Thread start(Runnable task, String name) {
+        Thread thread = null;
+        if (isVirtual()) {
+            try {
+                thread = (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), task);
+                thread.setName(name);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                // platform thread
+            }
+        }
+        if (thread == null) {
+            thread = new Thread(task, name);
+        }
+        thread.start();
+        return thread;
+    }
+}
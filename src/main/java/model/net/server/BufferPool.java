@@ -0,0 +1,122 @@
+package model.net.server;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct {@link ByteBuffer}s of the same size. The connections of the {@link SelectorServer} only hold a
+ * buffer, while an action is incomplete or waits to be written, so idle connections do not need any buffer.
+ *
+ * @author Hannes Illy
+ */
+final class BufferPool {
+    /**
+     * The default size of the buffers in bytes.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 4096;
+    /**
+     * The default maximum number of free buffers in the pool.
+     */
+    static final int DEFAULT_MAX_BUFFERS = 1024;
+
+    /**
+     * The free buffers.
+     */
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    /**
+     * The number of free buffers.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * The number of buffers, that were allocated.
+     */
+    private final AtomicInteger allocated = new AtomicInteger();
+    /**
+     * The size of the buffers in bytes.
+     */
+    private final int bufferSize;
+    /**
+     * The maximum number of free buffers in the pool.
+     */
+    private final int maxBuffers;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param bufferSize The size of the buffers in bytes.
+     * @param maxBuffers The maximum number of free buffers in the pool. Further buffers are left to the garbage
+     *                   collector, when they are released.
+     */
+    BufferPool(int bufferSize, int maxBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+    }
+
+    /**
+     * Creates an empty pool with the default sizes.
+     */
+    BufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_BUFFERS);
+    }
+
+    /**
+     * Takes a cleared buffer from the pool or allocates a new buffer, if the pool is empty.
+     *
+     * @return The buffer.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = this.buffers.poll();
+        if (buffer == null) {
+            this.allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(this.bufferSize);
+        }
+        this.size.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers of another size are ignored.
+     *
+     * @param buffer The buffer, that must not be used anymore.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() != this.bufferSize || !buffer.isDirect()) {
+            return;
+        }
+        if (this.size.incrementAndGet() <= this.maxBuffers) {
+            buffer.clear();
+            this.buffers.add(buffer);
+        } else {
+            this.size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the size of the buffers.
+     *
+     * @return The size in bytes.
+     */
+    int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Gets the number of free buffers in the pool.
+     *
+     * @return The number of buffers.
+     */
+    int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Gets the number of buffers, that were allocated by the pool.
+     *
+     * @return The number of buffers.
+     */
+    int getAllocated() {
+        return this.allocated.get();
+    }
+}
@@ -0,0 +1,268 @@
+package model.net.server;
+
+import model.action.Action;
+import model.action.ActionCodec;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ServerConnection} of a non-blocking {@link SocketChannel}, that is read and written by an
+ * {@link EventLoop} instead of an own thread. The received frames are decoded with the {@link ActionCodec} as soon as
+ * they arrive. Every action is encoded as one frame, that is written with one call, and the frames, that the channel
+ * could not take, are written together with a gathering write. Buffers are taken from the {@link BufferPool} of the
+ * loop and only kept, while an action is incomplete or waits to be written.
+ *
+ * @author Hannes Illy
+ */
+public class ChannelConnection extends ServerConnection {
+    /**
+     * The channel of the connection.
+     */
+    private final SocketChannel channel;
+    /**
+     * The loop, that reads and writes the channel.
+     */
+    private final EventLoop loop;
+    /**
+     * The task, that is executed by the loop, when the connection is closed.
+     */
+    private final Consumer<ChannelConnection> onClose;
+    /**
+     * The key of the channel or {@code null} if the channel is not registered yet.
+     */
+    private SelectionKey key = null;
+    /**
+     * The decoded actions, that were not read yet.
+     */
+    private final Queue<Action> actions = new ConcurrentLinkedQueue<>();
+    /**
+     * The received bytes of an incomplete action or {@code null}. Only used by the thread of the loop.
+     */
+    private ByteBuffer input = null;
+    /**
+     * The encoded actions, that could not be written yet. Guarded by itself.
+     */
+    private final Queue<ByteBuffer> output = new ArrayDeque<>();
+    /**
+     * If the connection is closed.
+     */
+    private volatile boolean isClosed = false;
+
+    /**
+     * Creates a connection of the given channel.
+     *
+     * @param channel The non-blocking channel.
+     * @param loop    The loop, that reads and writes the channel.
+     * @param onClose The task, that is executed once with the connection, when it is closed.
+     */
+    ChannelConnection(SocketChannel channel, EventLoop loop, Consumer<ChannelConnection> onClose) {
+        this.channel = channel;
+        this.loop = loop;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Sets the key of the registered channel. Called by the loop.
+     *
+     * @param key The key.
+     */
+    void setKey(SelectionKey key) {
+        this.key = key;
+        if (this.isClosed) {
+            key.cancel();
+        }
+    }
+
+    @Override
+    public Socket getSocket() {
+        return this.channel.socket();
+    }
+
+    /**
+     * The socket of a channel connection is set, when it is created.
+     *
+     * @param socket The socket.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setSocket(Socket socket) {
+        throw new UnsupportedOperationException("The channel of the connection cannot be changed.");
+    }
+
+    @Override
+    public boolean isActive() {
+        return !this.isClosed;
+    }
+
+    @Override
+    public Action readAction() {
+        return this.actions.poll();
+    }
+
+    /**
+     * Writes an action to the client. If the channel cannot take the whole action, the rest is written by the loop.
+     *
+     * @param action The action that is sent to the client.
+     */
+    @Override
+    public void writeAction(Action action) {
+        BufferPool pool = this.loop.getPool();
+        int size = ActionCodec.size(action);
+        ByteBuffer buffer = size <= pool.getBufferSize() ? pool.acquire() : ByteBuffer.allocate(size);
+        ActionCodec.encode(action, buffer);
+        buffer.flip();
+        synchronized (this.output) {
+            if (this.isClosed) {
+                pool.release(buffer);
+                return;
+            }
+            if (this.output.isEmpty()) {
+                try {
+                    this.channel.write(buffer);
+                } catch (IOException e) {
+                    pool.release(buffer);
+                    this.close();
+                    return;
+                }
+                if (!buffer.hasRemaining()) {
+                    pool.release(buffer);
+                    return;
+                }
+                this.loop.execute(this::requestWrite);
+            }
+            this.output.add(buffer);
+        }
+    }
+
+    /**
+     * Adds the write operation to the interest of the key. Called by the loop.
+     */
+    private void requestWrite() {
+        // the channel was registered by an earlier task
+        if (this.key != null && this.key.isValid()) {
+            this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Reads the available data of the channel and decodes the complete actions. Called by the loop.
+     */
+    void read() {
+        BufferPool pool = this.loop.getPool();
+        ByteBuffer buffer = this.input != null ? this.input : pool.acquire();
+        this.input = null;
+        int read;
+        try {
+            read = this.channel.read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        buffer.flip();
+        boolean received = false;
+        try {
+            Action action;
+            while ((action = ActionCodec.decode(buffer)) != null) {
+                this.actions.add(action);
+                received = true;
+            }
+        } catch (IllegalArgumentException e) {
+            // the rest of the stream cannot be decoded
+            read = -1;
+        }
+        if (received) {
+            this.notifyListener();
+        }
+        if (read < 0) {
+            pool.release(buffer);
+            this.close();
+        } else if (!buffer.hasRemaining()) {
+            pool.release(buffer);
+        } else {
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // the frame is larger than the buffer
+                ByteBuffer larger = ByteBuffer.allocate(Math.min(2 * buffer.capacity(), ActionCodec.MAX_SIZE));
+                larger.put(buffer);
+                pool.release(buffer);
+                this.input = larger;
+            } else {
+                buffer.compact();
+                this.input = buffer;
+            }
+        }
+    }
+
+    /**
+     * Writes the waiting actions to the channel with one gathering write. Called by the loop, when the channel can take
+     * more data.
+     */
+    void flush() {
+        BufferPool pool = this.loop.getPool();
+        synchronized (this.output) {
+            try {
+                this.channel.write(this.output.toArray(new ByteBuffer[0]));
+            } catch (IOException e) {
+                this.close();
+                return;
+            }
+            ByteBuffer buffer;
+            while ((buffer = this.output.peek()) != null) {
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                pool.release(this.output.poll());
+            }
+            this.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Closes the channel. The buffers are returned to the pool and the close task is executed by the loop, so no lock
+     * of the caller is held. If the loop has already stopped, they are executed by the current thread.
+     */
+    @Override
+    public void close() {
+        synchronized (this.output) {
+            if (this.isClosed) {
+                return;
+            }
+            this.isClosed = true;
+            // the task is added, before the loop can see the closed connection, so a closing loop does not stop
+            // without it
+            this.loop.add(this::closed);
+        }
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.loop.runIfStopped();
+    }
+
+    /**
+     * Returns the buffers to the pool and executes the close task. Called by the loop, after the connection was
+     * closed.
+     */
+    private void closed() {
+        BufferPool pool = this.loop.getPool();
+        if (this.input != null) {
+            pool.release(this.input);
+            this.input = null;
+        }
+        synchronized (this.output) {
+            ByteBuffer buffer;
+            while ((buffer = this.output.poll()) != null) {
+                pool.release(buffer);
+            }
+        }
+        this.notifyListener();
+        this.onClose.accept(this);
+    }
+}
@@ -8,99 +8,224 @@ import model.action.PutAction;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Creates a new client handler that will manage client communication and simulation of the game.
+ * <p>
+ * The connections notify the handler about received actions through a blocking queue. The thread of the handler
+ * parks, while no action arrives, and reads the actions of a connection as soon as it is notified. A handler, that is
+ * created with an {@link Executor}, has no own thread: it is a room of the {@link RoomManager}, whose actions are read
+ * by a task of the executor, when they arrive. At most one task of a room runs at the same time.
  *
  * @author Hannes Illy
  */
 public class ClientHandler implements Runnable {
+    /**
+     * The event, that wakes up the thread, when the handler is closed.
+     */
+    private static final ServerConnection CLOSED = new ServerConnection();
+    /**
+     * The connection of a player, who has not joined yet.
+     */
+    private static final ServerConnection EMPTY = new ServerConnection();
     /**
      * The connections for the players.
      */
-    private ServerConnection[] connections;
+    private final ServerConnection[] connections;
     /**
      * The game simulation.
      */
     private VierGewinnt game;
+    /**
+     * The connections, that received actions, in the order of the arrival. A connection can be contained more than
+     * once, its actions are read, when it is taken the first time.
+     */
+    private final BlockingQueue<ServerConnection> events = new LinkedBlockingQueue<>();
     /**
      * Indicates to the thread whether to keep running or not.
      */
-    private boolean isClosed;
+    private volatile boolean isClosed;
+    /**
+     * The executor, that reads the actions, or {@code null} if the handler is run by an own thread.
+     */
+    private final Executor executor;
+    /**
+     * If a task of the executor is scheduled or running.
+     */
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    /**
+     * The task, that is executed once, when the handler is closed.
+     */
+    private final Consumer<ClientHandler> onClose;
 
     /**
      * Creates a new {@link Runnable}, that can execute the server game {@link VierGewinnt}.
      */
     public ClientHandler() {
+        this(null, handler -> {
+        });
+    }
+
+    /**
+     * Creates a new client handler, whose actions are read by tasks of the given executor.
+     *
+     * @param executor The executor or {@code null} if the handler is run by an own thread.
+     * @param onClose  The task, that is executed once, when the handler is closed.
+     */
+    ClientHandler(Executor executor, Consumer<ClientHandler> onClose) {
+        this.executor = executor;
+        this.onClose = onClose;
         connections = new ServerConnection[2]; // two clients
         for (int i = 0; i < connections.length; i++) {
-            connections[i] = new ServerConnection();
+            connections[i] = EMPTY;
         }
         game = new VierGewinnt();
     }
 
     @Override
     public void run() {
-        Action currentAction;
-        int currentConnectionNumber;
         while (!isClosed) {
-            for (ServerConnection c : connections) {
+            ServerConnection c;
+            try {
+                // parks, until an action arrives
+                c = this.events.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            this.process(c);
+        }
+    }
+
+    /**
+     * Adds a connection, that received actions, to the events and schedules a task of the executor, if there is one.
+     * The actions of a closed handler are not read anymore, so only the close event is added after it was closed.
+     *
+     * @param connection The connection.
+     */
+    private void notify(ServerConnection connection) {
+        if (isClosed && connection != CLOSED) {
+            return;
+        }
+        this.events.add(connection);
+        if (this.executor != null && this.isScheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // the executor was shut down, so no task runs anymore
+                this.isScheduled.set(false);
+                if (connection == CLOSED) {
+                    this.events.clear();
+                    this.onClose.accept(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the events, until there is none. Executed by the executor. The close task is executed by the last task
+     * of a closed handler, so the handler is not reused, while a task still processes the old game.
+     */
+    private void drain() {
+        do {
+            ServerConnection c;
+            while ((c = this.events.poll()) != null) {
+                if (c == CLOSED) {
+                    // no task is scheduled anymore, until the handler is reset
+                    this.events.clear();
+                    this.onClose.accept(this);
+                    return;
+                }
+                this.process(c);
+            }
+            this.isScheduled.set(false);
+            // an event may have been added after the last poll, without scheduling a task
+        } while (!this.events.isEmpty() && this.isScheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Reads and executes the actions of a connection. If the player of the connection left, the other player is
+     * informed and the handler is closed.
+     *
+     * @param c The connection.
+     */
+    private void process(ServerConnection c) {
+        // the connections are not locked, while a connection is locked
+        ServerConnection[] connections = this.getConnections();
+        for (int index = 0; index < connections.length && !isClosed; index++) {
+            if (connections[index] == c && c != EMPTY) {
                 synchronized (c) {
-                    if (c.isActive()) {
-                        currentConnectionNumber = c.getConnectionNumber();
-                        if ((currentAction = c.readAction()) != null) {
-                            switch (currentAction.getType()) {
-                                case Action.TYPE_NEW_PLAYER:
-                                    NewPlayerAction newPlayerAction = (NewPlayerAction) currentAction;
-                                    connections[currentConnectionNumber].setName(newPlayerAction.getName());
-                                    //game.setPlayerName(currentConnectionNumber, newPlayerAction.getName());
-                                    for (int i = 0; i < connections.length; i++) {
-                                        if (i != currentConnectionNumber) {
-                                            c.writeAction(currentAction);
-                                        }
-                                    }
-                                    break;
-                                case Action.TYPE_PUT:
-                                    PutAction putAction = (PutAction) currentAction;
-                                    if (game != null && game.placePiece(putAction.getColumn(), currentConnectionNumber + 1)) {
-                                        for (int i = 0; i < connections.length; i++) {
-                                            if (i != currentConnectionNumber) {
-                                                c.writeAction(currentAction);
-                                            }
-                                        }
-                                    } else {
-                                        // TODO error
-                                    }
-                                    break;
-                                case Action.TYPE_NEW_GAME:
-                                    for (int i = 0; i < connections.length; i++) {
-                                        if (i != currentConnectionNumber) {
-                                            c.writeAction(currentAction);
-                                        }
-                                    }
-                                    //this.game.reset();
-                                    break;
-                                case Action.TYPE_EXIT:
-                                    //ExitAction exitAction = (ExitAction) currentAction;
-                                    for (int i = 0; i < connections.length; i++) {
-                                        if (i != currentConnectionNumber) {
-                                            c.writeAction(currentAction);
-                                        }
-                                    }
-                                    this.close();
-                                    break;
-                                case Action.TYPE_MESSAGE:
-                                    break;
-                                default:
-                                    throw new IllegalArgumentException("Illegal action type. type = " + currentAction.getType());
-                            }
-                        }
+                    Action currentAction;
+                    while (!isClosed && c.isActive() && (currentAction = c.readAction()) != null) {
+                        this.handleAction(connections, index, currentAction);
+                    }
+                    if (!isClosed && !c.isActive()) {
+                        this.close(c, new ExitAction(c.getName()));
                     }
                 }
             }
         }
     }
 
+    /**
+     * Executes an action of a player and forwards it to the other players.
+     *
+     * @param connections             The connections, indexed by the number of the player.
+     * @param currentConnectionNumber The number of the player, who sent the action.
+     * @param currentAction           The action.
+     */
+    private void handleAction(ServerConnection[] connections, int currentConnectionNumber, Action currentAction) {
+        switch (currentAction.getType()) {
+            case Action.TYPE_NEW_PLAYER:
+                NewPlayerAction newPlayerAction = (NewPlayerAction) currentAction;
+                connections[currentConnectionNumber].setName(newPlayerAction.getName());
+                //game.setPlayerName(currentConnectionNumber, newPlayerAction.getName());
+                this.forward(connections, currentConnectionNumber, currentAction);
+                break;
+            case Action.TYPE_PUT:
+                PutAction putAction = (PutAction) currentAction;
+                if (game != null && game.placePiece(putAction.getColumn(), currentConnectionNumber + 1)) {
+                    this.forward(connections, currentConnectionNumber, currentAction);
+                } else {
+                    // TODO error
+                }
+                break;
+            case Action.TYPE_NEW_GAME:
+                this.forward(connections, currentConnectionNumber, currentAction);
+                //this.game.reset();
+                break;
+            case Action.TYPE_EXIT:
+                //ExitAction exitAction = (ExitAction) currentAction;
+                this.close(connections[currentConnectionNumber], currentAction);
+                break;
+            case Action.TYPE_MESSAGE:
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal action type. type = " + currentAction.getType());
+        }
+    }
+
+    /**
+     * Sends an action to all active connections except the sender.
+     *
+     * @param connections             The connections, indexed by the number of the player.
+     * @param currentConnectionNumber The number of the player, who sent the action.
+     * @param action                  The action.
+     */
+    private void forward(ServerConnection[] connections, int currentConnectionNumber, Action action) {
+        for (int i = 0; i < connections.length; i++) {
+            if (i != currentConnectionNumber && connections[i].isActive()) {
+                connections[i].writeAction(action);
+            }
+        }
+    }
+
     /**
      * Tries to add a socket to the server. Returns, if the attempt was successful.
      *
@@ -109,38 +234,157 @@ public class ClientHandler implements Runnable {
      */
     public boolean addConnection(Socket connection) {
         synchronized (connections) {
-            for (ServerConnection c : this.connections) {
-                synchronized (c) {
-                    if (!c.isActive()) {
-                        try {
-                            c.setSocket(connection);
-                            return true;
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
+            for (int i = 0; i < this.connections.length; i++) {
+                if (!this.connections[i].isActive()) {
+                    try {
+                        this.setConnection(i, new ServerConnection(connection));
+                        return true;
+                    } catch (IOException e) {
+                        e.printStackTrace();
                     }
                 }
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Tries to add a connection, whose socket is already set, to the server. The connection takes the place of an
+     * inactive connection. Returns, if the attempt was successful, which is not the case, if the handler is closed.
+     *
+     * @param connection The connection that will be added.
+     * @return If the connection could be added successfully.
+     */
+    public boolean addConnection(ServerConnection connection) {
+        synchronized (connections) {
+            // the connections of a closed handler would never be read
+            if (isClosed) {
+                return false;
+            }
+            for (int i = 0; i < this.connections.length; i++) {
+                if (!this.connections[i].isActive()) {
+                    this.setConnection(i, connection);
+                    return true;
+                }
             }
         }
         return false;
     }
 
+    /**
+     * Replaces the connection of a player and lets the new connection notify this handler about its actions.
+     *
+     * @param index      The number of the player.
+     * @param connection The new connection.
+     */
+    private void setConnection(int index, ServerConnection connection) {
+        synchronized (connections) {
+            this.connections[index] = connection;
+        }
+        connection.setListener(() -> this.notify(connection));
+        // the connection may have received actions before
+        this.notify(connection);
+    }
+
+    /**
+     * Checks if both players have joined.
+     *
+     * @return If there is no free place.
+     */
+    public boolean isFull() {
+        synchronized (connections) {
+            for (ServerConnection c : this.connections) {
+                if (c == EMPTY) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Checks if the handler is closed.
+     *
+     * @return If the handler is closed.
+     */
+    public boolean isClosed() {
+        return this.isClosed;
+    }
+
+    /**
+     * Gets a copy of the connections. The connections can be replaced by other threads, so the access is synchronized.
+     *
+     * @return The connections, indexed by the number of the player.
+     */
+    private ServerConnection[] getConnections() {
+        synchronized (connections) {
+            return this.connections.clone();
+        }
+    }
+
     /**
      * Sends a close message to all clients and closes this client handler.
      */
     public void close() {
+        this.close(null, null);
+    }
+
+    /**
+     * Closes this client handler. The last action of a player, e.g. its exit, is sent to the other players before the
+     * close message. The connections are taken together with the closed flag, so a connection, that is added at the
+     * same time, is either refused or receives both actions. If the player has already been replaced by a new player,
+     * the handler stays open.
+     *
+     * @param sender The connection of the player, who sent the action, or {@code null}.
+     * @param action The action, that is sent to the other players, or {@code null}.
+     */
+    private void close(ServerConnection sender, Action action) {
+        ServerConnection[] connections;
+        synchronized (this.connections) {
+            if (isClosed || sender != null && !Arrays.asList(this.connections).contains(sender)) {
+                return;
+            }
+            isClosed = true;
+            connections = this.connections.clone();
+        }
         Action close = new ExitAction("Server", ExitAction.SERVER_CLOSED);
         for (ServerConnection c : connections) {
+            if (c == EMPTY) {
+                // shared by all handlers
+                continue;
+            }
             // can be called from other threads, so it has to be thread-safe
             synchronized (c) {
                 if (c.isActive()) {
+                    if (action != null && c != sender) {
+                        c.writeAction(action);
+                    }
                     c.writeAction(close);
                     c.close();
                 }
             }
         }
-        isClosed = true;
+        // wakes up the thread or lets the last task execute the close task
+        this.notify(CLOSED);
+        if (this.executor == null) {
+            this.onClose.accept(this);
+        }
+    }
+
+    /**
+     * Prepares a closed handler for a new game, so it can be used again. A handler with an executor may only be reset
+     * after its close task was executed.
+     */
+    void reset() {
+        synchronized (connections) {
+            for (int i = 0; i < this.connections.length; i++) {
+                this.connections[i] = EMPTY;
+            }
+        }
+        this.game.reset();
+        this.events.clear();
+        this.isScheduled.set(false);
+        isClosed = false;
     }
 
 }
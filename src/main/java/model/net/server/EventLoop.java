@@ -0,0 +1,207 @@
+package model.net.server;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A thread with a {@link Selector}, that reads and writes the data of many {@link ChannelConnection}s. The channels
+ * are only registered and changed by the thread of the loop; other threads hand over these changes as tasks.
+ *
+ * @author Hannes Illy
+ */
+final class EventLoop implements Runnable {
+    /**
+     * The selector of the channels.
+     */
+    private final Selector selector;
+    /**
+     * The pool of the buffers of the connections.
+     */
+    private final BufferPool pool;
+    /**
+     * The tasks, that are executed by the loop before the next selection.
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /**
+     * The thread of the loop.
+     */
+    private final Thread thread;
+    /**
+     * Indicates to the thread whether to keep running or not.
+     */
+    private volatile boolean isClosed = false;
+    /**
+     * If the thread has stopped to run the tasks. Later tasks are run by the thread, that adds them.
+     */
+    private volatile boolean isStopped = false;
+
+    /**
+     * Creates a loop and starts its thread.
+     *
+     * @param name The name of the thread.
+     * @param pool The pool of the buffers of the connections.
+     * @throws IOException If the selector cannot be opened.
+     */
+    EventLoop(String name, BufferPool pool) throws IOException {
+        this.selector = Selector.open();
+        this.pool = pool;
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Creates a connection for the channel and registers it with this loop.
+     *
+     * @param channel The connected channel.
+     * @param onClose The task, that is executed once with the connection, when it is closed.
+     * @return The connection.
+     * @throws IOException If the channel cannot be configured.
+     */
+    ChannelConnection register(SocketChannel channel, Consumer<ChannelConnection> onClose) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        ChannelConnection connection = new ChannelConnection(channel, this, onClose);
+        this.execute(() -> {
+            try {
+                connection.setKey(channel.register(this.selector, SelectionKey.OP_READ, connection));
+            } catch (IOException | ClosedSelectorException e) {
+                connection.close();
+            }
+        });
+        return connection;
+    }
+
+    /**
+     * Executes the task on the thread of the loop or, if the loop has stopped, on the current thread, so the task is
+     * never lost.
+     *
+     * @param task The task.
+     */
+    void execute(Runnable task) {
+        this.add(task);
+        this.runIfStopped();
+    }
+
+    /**
+     * Adds a task, that is executed on the thread of the loop. If the loop has stopped, the task waits for
+     * {@link #runIfStopped()}, so the caller can add it, while it holds a lock.
+     *
+     * @param task The task.
+     */
+    void add(Runnable task) {
+        this.tasks.add(task);
+        if (!this.isStopped && Thread.currentThread() != this.thread) {
+            this.selector.wakeup();
+        }
+    }
+
+    /**
+     * Runs the waiting tasks on the current thread, if the loop has stopped.
+     */
+    void runIfStopped() {
+        if (this.isStopped) {
+            this.runTasks();
+        }
+    }
+
+    /**
+     * Gets the pool of the buffers of the connections.
+     *
+     * @return The pool.
+     */
+    BufferPool getPool() {
+        return this.pool;
+    }
+
+    @Override
+    public void run() {
+        while (!this.isClosed) {
+            try {
+                // tasks, that were added by this thread, do not wake up the selector
+                if (this.tasks.isEmpty()) {
+                    this.selector.select();
+                } else {
+                    this.selector.selectNow();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                break;
+            }
+            this.runTasks();
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                ChannelConnection connection = (ChannelConnection) key.attachment();
+                try {
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                } catch (CancelledKeyException e) {
+                    // closed by another thread
+                    connection.close();
+                }
+            }
+        }
+        // registers the waiting channels, so they are closed, too
+        this.runTasks();
+        for (SelectionKey key : this.selector.keys()) {
+            ((ChannelConnection) key.attachment()).close();
+        }
+        this.runTasks();
+        this.isStopped = true;
+        // the tasks, that were added before the flag was set
+        this.runTasks();
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs the waiting tasks. A failing task does not stop the loop, which still has to close its connections.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Closes all connections of the loop and stops its thread. The connections are closed by the thread, so the
+     * method returns before they are closed; {@link #join()} waits for it.
+     */
+    void close() {
+        this.isClosed = true;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Waits, until the thread of the closed loop has closed all connections and stopped.
+     *
+     * @throws InterruptedException If the current thread is interrupted.
+     */
+    void join() throws InterruptedException {
+        if (Thread.currentThread() != this.thread) {
+            this.thread.join();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package model.net.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manages the rooms of a server: every two connections play in their own room, which is a {@link ClientHandler}
+ * without an own thread. The actions of all rooms are processed by a fixed number of worker threads, so the number of
+ * rooms is only limited by the memory.
+ * <p>
+ * A room is created, when a connection arrives and there is no room with a waiting player. When a player leaves or
+ * exits, the room is closed and kept for one of the next rooms, so the game and the queues are reused.
+ *
+ * @author Hannes Illy
+ */
+public class RoomManager {
+    /**
+     * The default number of worker threads.
+     */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    /**
+     * The maximum number of closed rooms, that are kept for reuse.
+     */
+    static final int MAX_FREE_ROOMS = 1024;
+
+    /**
+     * The worker threads of the rooms.
+     */
+    private final ExecutorService executor;
+    /**
+     * The open rooms.
+     */
+    private final Set<ClientHandler> rooms = ConcurrentHashMap.newKeySet();
+    /**
+     * The closed rooms, that can be reused. Guarded by the manager.
+     */
+    private final Queue<ClientHandler> free = new ArrayDeque<>();
+    /**
+     * The room, whose first player waits for the second player, or {@code null}. Guarded by the manager.
+     */
+    private ClientHandler waiting = null;
+    /**
+     * The number of rooms, that were created.
+     */
+    private final AtomicInteger createdRooms = new AtomicInteger();
+    /**
+     * The number of games, that were finished.
+     */
+    private final AtomicInteger finishedGames = new AtomicInteger();
+    /**
+     * If the manager is closed. Guarded by the manager.
+     */
+    private boolean isClosed = false;
+
+    /**
+     * Creates a manager with the given number of worker threads.
+     *
+     * @param threads The number of worker threads.
+     */
+    public RoomManager(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Room-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a manager with the default number of worker threads.
+     */
+    public RoomManager() {
+        this(DEFAULT_THREADS);
+    }
+
+    /**
+     * Adds a connection to the room with a waiting player or to a new room.
+     *
+     * @param connection The connection, whose socket is already set.
+     * @return If the connection could be added, which is not the case after the manager was closed.
+     */
+    public synchronized boolean addConnection(ServerConnection connection) {
+        if (this.isClosed) {
+            return false;
+        }
+        while (this.waiting == null || !this.waiting.addConnection(connection)) {
+            // there is no waiting player or the waiting player left, the closed room is removed by its callback
+            this.waiting = this.free.poll();
+            if (this.waiting != null) {
+                this.waiting.reset();
+            } else {
+                this.waiting = new ClientHandler(this.executor, this::closed);
+                this.createdRooms.incrementAndGet();
+            }
+            this.rooms.add(this.waiting);
+        }
+        if (this.waiting.isFull()) {
+            this.waiting = null;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a closed room and keeps it for reuse. Called by the last task of the room, so no task of the old game
+     * runs, when the room is reused.
+     *
+     * @param room The closed room.
+     */
+    private synchronized void closed(ClientHandler room) {
+        if (this.rooms.remove(room)) {
+            this.finishedGames.incrementAndGet();
+        }
+        if (this.waiting == room) {
+            this.waiting = null;
+        }
+        if (!this.isClosed && this.free.size() < MAX_FREE_ROOMS) {
+            this.free.add(room);
+        }
+    }
+
+    /**
+     * Gets the number of open rooms.
+     *
+     * @return The number of rooms.
+     */
+    public int getRoomCount() {
+        return this.rooms.size();
+    }
+
+    /**
+     * Gets the number of closed rooms, that are kept for reuse.
+     *
+     * @return The number of rooms.
+     */
+    public synchronized int getFreeRoomCount() {
+        return this.free.size();
+    }
+
+    /**
+     * Gets the number of rooms, that were created. Reused rooms are counted once.
+     *
+     * @return The number of rooms.
+     */
+    public int getCreatedRooms() {
+        return this.createdRooms.get();
+    }
+
+    /**
+     * Gets the number of games, that were finished.
+     *
+     * @return The number of games.
+     */
+    public int getFinishedGames() {
+        return this.finishedGames.get();
+    }
+
+    /**
+     * Closes all rooms and stops the worker threads.
+     */
+    public void close() {
+        List<ClientHandler> rooms;
+        synchronized (this) {
+            this.isClosed = true;
+            this.free.clear();
+            rooms = new ArrayList<>(this.rooms);
+        }
+        // the rooms are closed without the lock of the manager, because they call it back
+        for (ClientHandler room : rooms) {
+            room.close();
+        }
+        this.executor.shutdown();
+    }
+}
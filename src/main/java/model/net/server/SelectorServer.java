@@ -0,0 +1,227 @@
+package model.net.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking server, that can be used instead of the {@link Server}. The connections are accepted by a
+ * {@link ServerSocketChannel} with a {@link Selector} and distributed to a small number of {@link EventLoop}s, which
+ * read and write the actions of all connections with pooled buffers. So the number of threads does not grow with the
+ * number of clients and one server can hold many thousands of connections.
+ * <p>
+ * Every two connections play in their own room of the {@link RoomManager}.
+ *
+ * @author Hannes Illy
+ */
+public class SelectorServer implements Runnable {
+    /**
+     * The default number of event loops.
+     */
+    public static final int DEFAULT_LOOPS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    /**
+     * The channel that accepts incoming connections.
+     */
+    private final ServerSocketChannel server;
+    /**
+     * The selector of the server channel.
+     */
+    private final Selector selector;
+    /**
+     * The loops, that read and write the connections.
+     */
+    private final EventLoop[] loops;
+    /**
+     * The pool of the buffers of all loops.
+     */
+    private final BufferPool pool = new BufferPool();
+    /**
+     * The rooms, that manage the data transfer and calculations.
+     */
+    private final RoomManager roomManager;
+    /**
+     * The number of open connections.
+     */
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    /**
+     * The index of the loop of the next connection.
+     */
+    private int nextLoop = 0;
+    /**
+     * Indicates if the server should stop running.
+     */
+    private volatile boolean isClosed = false;
+
+    /**
+     * Creates a new server, that listens on the given port, with the given number of event loops and a room manager
+     * that manages the calculations.
+     *
+     * @param port        The port on which the server is opened or 0 for any free port.
+     * @param loops       The number of event loops.
+     * @param roomManager The room manager.
+     * @throws IOException If the server channel or a selector cannot be opened.
+     */
+    public SelectorServer(int port, int loops, RoomManager roomManager) throws IOException {
+        if (loops < 1) {
+            throw new IllegalArgumentException("At least one loop is needed. loops = " + loops);
+        }
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(port), 1024);
+        this.server.configureBlocking(false);
+        this.selector = Selector.open();
+        this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.loops = new EventLoop[loops];
+        for (int i = 0; i < loops; i++) {
+            this.loops[i] = new EventLoop("EventLoop-" + i, this.pool);
+        }
+        this.roomManager = roomManager;
+    }
+
+    /**
+     * Creates a new server, that listens on the given port, with the given number of event loops and a room manager
+     * with the default number of threads.
+     *
+     * @param port  The port on which the server is opened or 0 for any free port.
+     * @param loops The number of event loops.
+     * @throws IOException If the server channel or a selector cannot be opened.
+     */
+    public SelectorServer(int port, int loops) throws IOException {
+        this(port, loops, new RoomManager());
+    }
+
+    /**
+     * Creates a new server on the given port with the default number of event loops.
+     *
+     * @param port The port on which the server is opened.
+     * @throws IOException If the server channel or a selector cannot be opened.
+     */
+    public SelectorServer(int port) throws IOException {
+        this(port, DEFAULT_LOOPS);
+    }
+
+    /**
+     * Creates a new server on the default port with the default number of event loops.
+     *
+     * @throws IOException If the server channel or a selector cannot be opened.
+     */
+    public SelectorServer() throws IOException {
+        this(Server.DEFAULT_PORT);
+    }
+
+    /**
+     * Gets the port, on which the server listens.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return this.server.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the number of open connections.
+     *
+     * @return The number of connections.
+     */
+    public int getConnectionCount() {
+        return this.connectionCount.get();
+    }
+
+    /**
+     * Gets the room manager of the server.
+     *
+     * @return The room manager.
+     */
+    public RoomManager getRoomManager() {
+        return this.roomManager;
+    }
+
+    /**
+     * Gets the pool of the buffers of the connections.
+     *
+     * @return The pool.
+     */
+    BufferPool getPool() {
+        return this.pool;
+    }
+
+    @Override
+    public void run() {
+        while (!this.isClosed) {
+            try {
+                this.selector.select();
+                this.selector.selectedKeys().clear();
+                SocketChannel channel;
+                while ((channel = this.server.accept()) != null) {
+                    this.accept(channel);
+                }
+            } catch (IOException e) {
+                if (!this.isClosed) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Registers an accepted channel with the next loop and adds it to a room.
+     *
+     * @param channel The accepted channel.
+     */
+    private void accept(SocketChannel channel) {
+        EventLoop loop = this.loops[this.nextLoop];
+        this.nextLoop = (this.nextLoop + 1) % this.loops.length;
+        ChannelConnection connection;
+        this.connectionCount.incrementAndGet();
+        try {
+            connection = loop.register(channel, c -> this.connectionCount.decrementAndGet());
+        } catch (IOException e) {
+            e.printStackTrace();
+            this.connectionCount.decrementAndGet();
+            try {
+                channel.close();
+            } catch (IOException e1) {
+                e1.printStackTrace();
+            }
+            return;
+        }
+        if (!this.roomManager.addConnection(connection)) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Indicates to the server, that it should stop, and closes all connections.
+     */
+    public void close() {
+        this.isClosed = true;
+
+        for (EventLoop loop : this.loops) {
+            loop.close();
+        }
+        // the rooms are closed, after the loops have closed their connections and notified the rooms
+        try {
+            for (EventLoop loop : this.loops) {
+                loop.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.roomManager.close();
+        this.selector.wakeup();
+        try {
+            this.server.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -12,16 +12,16 @@ public class Server implements Runnable {
      */
     private ServerSocket server;
     /**
-     * The {@link Runnable} that will manage the data transfer and calculations.
+     * The rooms, that manage the data transfer and calculations.
      */
-    private ClientHandler clientHandler;
+    private RoomManager roomManager;
     /**
      * Indicates if the server should stop running.
      */
     private boolean isClosed;
     
     /**
-     * Creates a new server with a server socket and a client handler that manages the calculations.
+     * Creates a new server with a server socket and a room manager that manages the calculations.
      * 
      * @param port
      *            The port on which the server is opened.
@@ -30,13 +30,11 @@ public class Server implements Runnable {
      */
     public Server(int port) throws IOException {
         server = new ServerSocket(port);
-        clientHandler = new ClientHandler();
-        
-        new Thread(clientHandler).start();
+        roomManager = new RoomManager();
     }
     
     /**
-     * Creates a new server with a server socket and a client handler that manages the calculations.
+     * Creates a new server with a server socket and a room manager that manages the calculations.
      * 
      * @throws IOException
      *             If an {@link IOException} occurs when creating the server socket.
@@ -50,9 +48,13 @@ public class Server implements Runnable {
         while (!isClosed) {
             try {
                 Socket socket = server.accept();
-                clientHandler.addConnection(socket);
+                if (!roomManager.addConnection(new ServerConnection(socket))) {
+                    socket.close();
+                }
             } catch (IOException e) {
-                e.printStackTrace();
+                if (!isClosed) {
+                    e.printStackTrace();
+                }
             }
         }
     }
@@ -63,7 +65,7 @@ public class Server implements Runnable {
     public void close() {
         isClosed = true;
 
-        clientHandler.close();
+        roomManager.close();
         try {
             server.close();
         } catch (IOException e) {
@@ -3,6 +3,7 @@ package model.net.server;
 import model.action.Action;
 import model.action.ActionInputDecoder;
 import model.action.ActionOutputEncoder;
+import model.net.ConnectionThreads;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -24,6 +25,10 @@ public class ServerConnection {
 
     private ActionInputDecoder in = null;
     private ActionOutputEncoder out = null;
+    /**
+     * The listener, that is notified about new actions and the end of the connection, or {@code null}.
+     */
+    private volatile Runnable listener = null;
 
     /**
      * Creates a new ServerConnection with the given socket and assigns a connection number.
@@ -75,10 +80,34 @@ public class ServerConnection {
     public void setSocket(Socket socket) throws IOException {
         this.connection = socket;
         this.in = new ActionInputDecoder(socket.getInputStream());
-        new Thread(in).start(); // start the reader
+        this.in.setListener(this.listener);
+        ConnectionThreads.start(in, "ActionInputDecoder-" + this.connectionNumber); // start the reader
         this.out = new ActionOutputEncoder(socket.getOutputStream());
     }
 
+    /**
+     * Sets the listener, that is notified after an action was received and after the connection was closed. The
+     * listener is called by the thread, that reads the connection.
+     *
+     * @param listener The listener or {@code null}.
+     */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+        if (this.in != null) {
+            this.in.setListener(listener);
+        }
+    }
+
+    /**
+     * Notifies the listener, if there is one.
+     */
+    protected void notifyListener() {
+        Runnable listener = this.listener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
     /**
      * Sets the name of this connection's owner
      *
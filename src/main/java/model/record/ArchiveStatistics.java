@@ -0,0 +1,418 @@
+package model.record;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Statistics of the games of a {@link GameArchive}: the results and lengths of the games, the results of every first
+ * move and the popularity of the columns at every ply, for every board size.
+ * <p>
+ * The statistics are computed in one pass over the archive (see {@link #compute(GameArchive, int)}). The archive is
+ * split into ranges of game ids, that are scanned in parallel. Every task adds its games to its own statistics and the
+ * statistics are merged at the end, so the threads do not share counters. The size of the statistics only depends on
+ * the board sizes and the length of the longest game, not on the number of games.
+ *
+ * @author Hannes Illy
+ */
+public class ArchiveStatistics {
+    /**
+     * The number of games of a range, that is scanned by one task.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The statistics of every board size, ordered by the columns and rows.
+     */
+    private final Map<Integer, BoardStatistics> boards = new TreeMap<>();
+    /**
+     * The statistics of the board size of the last game, so the map is not searched for every game.
+     */
+    private BoardStatistics last = null;
+    /**
+     * The duration of the computation in nanoseconds.
+     */
+    private long elapsedTime = 0;
+
+    /**
+     * Computes the statistics of all games of the archive on the given number of threads.
+     *
+     * @param archive The archive.
+     * @param threads The number of threads.
+     * @return The statistics.
+     * @throws IOException If the archive cannot be read.
+     */
+    public static ArchiveStatistics compute(GameArchive archive, int threads) throws IOException {
+        return compute(archive, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Computes the statistics of all games of the archive on the given number of threads.
+     *
+     * @param archive   The archive.
+     * @param threads   The number of threads.
+     * @param chunkSize The number of games of a range, that is scanned by one task.
+     * @return The statistics.
+     * @throws IOException If the archive cannot be read.
+     */
+    static ArchiveStatistics compute(GameArchive archive, int threads, int chunkSize) throws IOException {
+        long startTime = System.nanoTime();
+        long games = archive.size();
+        long chunks = (games + chunkSize - 1) / chunkSize;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ArchiveStatistics statistics;
+        try {
+            statistics = pool.submit(() -> LongStream.range(0, chunks).parallel().collect(ArchiveStatistics::new,
+                    (result, chunk) -> {
+                        try {
+                            archive.scan(chunk * chunkSize, Math.min(games, (chunk + 1) * chunkSize),
+                                    (id, record) -> result.add(record));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, ArchiveStatistics::merge)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The computation was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        statistics.elapsedTime = System.nanoTime() - startTime;
+        return statistics;
+    }
+
+    /**
+     * Adds a game to the statistics.
+     *
+     * @param record The game.
+     */
+    public void add(RecordView record) {
+        BoardStatistics board = this.last;
+        if (board == null || board.columns != record.getColumns() || board.rows != record.getRows()) {
+            board = this.boards.computeIfAbsent(record.getColumns() << 8 | record.getRows(),
+                    size -> new BoardStatistics(record.getColumns(), record.getRows()));
+            this.last = board;
+        }
+        board.add(record);
+    }
+
+    /**
+     * Adds the games of the given statistics to these statistics.
+     *
+     * @param other The statistics.
+     */
+    public void merge(ArchiveStatistics other) {
+        for (Map.Entry<Integer, BoardStatistics> entry : other.boards.entrySet()) {
+            BoardStatistics board = entry.getValue();
+            this.boards.computeIfAbsent(entry.getKey(), size -> new BoardStatistics(board.columns, board.rows))
+                    .merge(board);
+        }
+    }
+
+    /**
+     * Gets the statistics of every board size, ordered by the number of columns and rows.
+     *
+     * @return The statistics of the board sizes with at least one game.
+     */
+    public List<BoardStatistics> getBoards() {
+        return new ArrayList<>(this.boards.values());
+    }
+
+    /**
+     * Gets the statistics of the given board size.
+     *
+     * @param columns The number of columns.
+     * @param rows    The number of rows.
+     * @return The statistics or {@code null} if there are no games on this board size.
+     */
+    public BoardStatistics getBoard(int columns, int rows) {
+        return this.boards.get(columns << 8 | rows);
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return The number of games.
+     */
+    public long getGames() {
+        long games = 0;
+        for (BoardStatistics board : this.boards.values()) {
+            games += board.getGames();
+        }
+        return games;
+    }
+
+    /**
+     * Gets the average number of moves of all games.
+     *
+     * @return The average number of moves or {@code 0} if there are no games.
+     */
+    public double getAverageLength() {
+        long moves = 0;
+        for (BoardStatistics board : this.boards.values()) {
+            moves += board.moves;
+        }
+        long games = this.getGames();
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * Gets the duration of the computation.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+
+    /**
+     * Gets the number of games per second of the computation.
+     *
+     * @return The number of games per second.
+     */
+    public double getGamesPerSecond() {
+        return this.elapsedTime == 0 ? 0 : this.getGames() * 1e9 / this.elapsedTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%d games, %.1f moves per game, %.0f games/s",
+                this.getGames(), this.getAverageLength(), this.getGamesPerSecond()));
+        for (BoardStatistics board : this.boards.values()) {
+            builder.append(System.lineSeparator()).append(board);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The statistics of the games on one board size.
+     */
+    public static final class BoardStatistics {
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+        /**
+         * The number of rows of the board.
+         */
+        private final int rows;
+        /**
+         * The number of games with each result: index 0 = unfinished, 1 = draw, 2 = player 1 won, 3 = player 2 won.
+         */
+        private final long[] results = new long[4];
+        /**
+         * The number of moves of all games.
+         */
+        private long moves = 0;
+        /**
+         * The number of games with each result after each first move, indexed like the results.
+         */
+        private final long[][] firstMoves;
+        /**
+         * The number of moves in each column at each ply. The counts of a ply are created, when the first game
+         * reaches the ply.
+         */
+        private final long[][] plies;
+
+        /**
+         * Creates empty statistics.
+         *
+         * @param columns The number of columns.
+         * @param rows    The number of rows.
+         */
+        private BoardStatistics(int columns, int rows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.firstMoves = new long[columns][4];
+            this.plies = new long[columns * rows][];
+        }
+
+        /**
+         * Adds a game.
+         *
+         * @param record The game on a board of this size.
+         */
+        private void add(RecordView record) {
+            int result = record.getResult() + 1;
+            int moveCount = record.getMoveCount();
+            this.results[result]++;
+            this.moves += moveCount;
+            for (int ply = 0; ply < moveCount; ply++) {
+                int column = record.getMove(ply);
+                if (ply == 0) {
+                    this.firstMoves[column][result]++;
+                }
+                if (this.plies[ply] == null) {
+                    this.plies[ply] = new long[this.columns];
+                }
+                this.plies[ply][column]++;
+            }
+        }
+
+        /**
+         * Adds the games of the given statistics.
+         *
+         * @param other The statistics of the same board size.
+         */
+        private void merge(BoardStatistics other) {
+            add(this.results, other.results);
+            this.moves += other.moves;
+            for (int column = 0; column < this.columns; column++) {
+                add(this.firstMoves[column], other.firstMoves[column]);
+            }
+            for (int ply = 0; ply < this.plies.length; ply++) {
+                if (other.plies[ply] != null) {
+                    if (this.plies[ply] == null) {
+                        this.plies[ply] = new long[this.columns];
+                    }
+                    add(this.plies[ply], other.plies[ply]);
+                }
+            }
+        }
+
+        /**
+         * Adds the counts of an array to the counts of another array.
+         *
+         * @param counts The counts, that are increased.
+         * @param other  The counts, that are added.
+         */
+        private static void add(long[] counts, long[] other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other[i];
+            }
+        }
+
+        /**
+         * Gets the number of columns of the board.
+         *
+         * @return The number of columns.
+         */
+        public int getColumns() {
+            return this.columns;
+        }
+
+        /**
+         * Gets the number of rows of the board.
+         *
+         * @return The number of rows.
+         */
+        public int getRows() {
+            return this.rows;
+        }
+
+        /**
+         * Gets the number of games.
+         *
+         * @return The number of games.
+         */
+        public long getGames() {
+            return this.results[0] + this.results[1] + this.results[2] + this.results[3];
+        }
+
+        /**
+         * Gets the number of games with the given result.
+         *
+         * @param result The winner (1 or 2), 0 for a draw or {@link GameRecord#UNFINISHED}.
+         * @return The number of games.
+         */
+        public long getGames(int result) {
+            return this.results[result + 1];
+        }
+
+        /**
+         * Gets the share of draws in the finished games.
+         *
+         * @return The draw rate (from 0 to 1) or {@code 0} if there are no finished games.
+         */
+        public double getDrawRate() {
+            long finished = this.results[1] + this.results[2] + this.results[3];
+            return finished == 0 ? 0 : (double) this.results[1] / finished;
+        }
+
+        /**
+         * Gets the average number of moves of the games.
+         *
+         * @return The average number of moves or {@code 0} if there are no games.
+         */
+        public double getAverageLength() {
+            long games = this.getGames();
+            return games == 0 ? 0 : (double) this.moves / games;
+        }
+
+        /**
+         * Gets the number of games with the given first move and result.
+         *
+         * @param column The column of the first move.
+         * @param result The winner (1 or 2), 0 for a draw or {@link GameRecord#UNFINISHED}.
+         * @return The number of games.
+         */
+        public long getFirstMoveGames(int column, int result) {
+            return this.firstMoves[column][result + 1];
+        }
+
+        /**
+         * Gets the share of the finished games with the given first move, that player 1 won.
+         *
+         * @param column The column of the first move.
+         * @return The win rate (from 0 to 1) or {@code NaN} if no finished game started with this move.
+         */
+        public double getFirstMoveWinRate(int column) {
+            long[] counts = this.firstMoves[column];
+            long finished = counts[1] + counts[2] + counts[3];
+            return finished == 0 ? Double.NaN : (double) counts[2] / finished;
+        }
+
+        /**
+         * Gets the number of games, that placed a piece in the given column at the given ply.
+         *
+         * @param ply    The number of the move (from 0).
+         * @param column The column.
+         * @return The number of games.
+         */
+        public long getColumnCount(int ply, int column) {
+            return ply < this.plies.length && this.plies[ply] != null ? this.plies[ply][column] : 0;
+        }
+
+        /**
+         * Gets the share of the games, that placed a piece in the given column at the given ply, in all games, that
+         * reached the ply.
+         *
+         * @param ply    The number of the move (from 0).
+         * @param column The column.
+         * @return The share (from 0 to 1) or {@code 0} if no game reached the ply.
+         */
+        public double getColumnPopularity(int ply, int column) {
+            if (ply >= this.plies.length || this.plies[ply] == null) {
+                return 0;
+            }
+            long games = 0;
+            for (long count : this.plies[ply]) {
+                games += count;
+            }
+            return (double) this.plies[ply][column] / games;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("%dx%d: %d games, %.1f moves per game, "
+                            + "draws: %.1f %%, unfinished: %d, player 1 wins after first move:",
+                    this.columns, this.rows, this.getGames(), this.getAverageLength(), 100 * this.getDrawRate(),
+                    this.results[0]));
+            for (int column = 0; column < this.columns; column++) {
+                builder.append(String.format(" %.1f %%", 100 * this.getFirstMoveWinRate(column)));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package model.record;
+
+import model.VierGewinnt;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only archive of game records in a directory. The records are stored in segment files with a maximum size
+ * and every record gets the next game id, starting at 0. An index file stores the position of every record, so a
+ * record is found by its id in constant time.
+ * <p>
+ * The files are:
+ * <pre>
+ * segment-00000.vgr ...  the header and the records as written by a {@link GameRecordWriter}
+ * index.vgi              int magic ("VGGI"), int version, long[games] positions (segment &lt;&lt; 32 | offset)
+ * </pre>
+ * Records are read from memory-mapped segments, so neither a lookup nor a scan reads the files onto the heap. A scan
+ * visits the records of a segment in file order with a reused {@link RecordView}, which reads the values directly from
+ * the mapped segment. Different segments can be scanned by different threads at the same time.
+ * <p>
+ * Appended records are buffered until the archive is flushed. Lookups and scans flush the archive before they read.
+ * The index is written after the segments, so a crash loses at most the records since the last flush: when an archive
+ * is opened, records, that are not complete in the files, are removed.
+ *
+ * @author Hannes Illy
+ */
+public class GameArchive implements Closeable, Flushable {
+    /**
+     * The first four bytes of the index file ("VGGI").
+     */
+    static final int INDEX_MAGIC = 0x56474749;
+    /**
+     * The version of the index format.
+     */
+    static final int INDEX_VERSION = 1;
+    /**
+     * The size of the index header in bytes.
+     */
+    static final int INDEX_HEADER_SIZE = 2 * Integer.BYTES;
+    /**
+     * The default maximum size of a segment in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+    /**
+     * The minimum size of a segment in bytes, so a segment has space for every record.
+     */
+    public static final int MIN_SEGMENT_SIZE = GameRecordWriter.HEADER_SIZE + 3 + GameRecordFormat.MAX_RECORD_SIZE;
+    /**
+     * The size of the buffers, in which appended records and index entries are collected.
+     */
+    private static final int BUFFER_SIZE = 1 << 18;
+    /**
+     * The index is mapped in parts of {@code 2^INDEX_CHUNK_BITS} entries, because a mapping has at most 2 GiB.
+     */
+    private static final int INDEX_CHUNK_BITS = 27;
+
+    /**
+     * The directory of the archive.
+     */
+    private final Path directory;
+    /**
+     * The maximum size of a segment in bytes.
+     */
+    private final int segmentSize;
+    /**
+     * The index file.
+     */
+    private final FileChannel index;
+    /**
+     * The segment, to which records are appended.
+     */
+    private FileChannel segment;
+    /**
+     * The number of the segment, to which records are appended.
+     */
+    private int segmentNumber;
+    /**
+     * The size of the segment, to which records are appended, including the buffered records.
+     */
+    private long segmentLength;
+    /**
+     * The appended records, that are not written yet.
+     */
+    private final ByteBuffer data = ByteBuffer.allocate(BUFFER_SIZE);
+    /**
+     * The index entries of the records, that are not written yet.
+     */
+    private final ByteBuffer entries = ByteBuffer.allocate(BUFFER_SIZE / 4);
+    /**
+     * The buffer, in which a record is encoded.
+     */
+    private final ByteBuffer record = ByteBuffer.allocate(GameRecordFormat.MAX_RECORD_SIZE);
+    /**
+     * The game, in which appended records are checked.
+     */
+    private VierGewinnt game = null;
+    /**
+     * The number of records in the archive.
+     */
+    private long count;
+    /**
+     * The number of records, that are written to the files.
+     */
+    private long writtenCount;
+    /**
+     * The mapped segments, indexed by the segment number. A segment is mapped again, if it has grown.
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    /**
+     * The mapped parts of the index with {@code 2^INDEX_CHUNK_BITS} entries each. A part is mapped again, if it has
+     * grown.
+     */
+    private final List<MappedByteBuffer> indexChunks = new ArrayList<>();
+
+    /**
+     * Opens the archive in the given directory.
+     *
+     * @param directory   The directory.
+     * @param segmentSize The maximum size of a segment in bytes.
+     * @throws IOException If the archive cannot be opened.
+     */
+    private GameArchive(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        this.index = FileChannel.open(directory.resolve("index.vgi"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long indexSize = this.index.size();
+        if (indexSize == 0) {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE).putInt(INDEX_MAGIC).putInt(INDEX_VERSION);
+            header.flip();
+            this.writeFully(this.index, header, 0);
+            indexSize = INDEX_HEADER_SIZE;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+            this.index.read(header, 0);
+            if (indexSize < INDEX_HEADER_SIZE || header.getInt(0) != INDEX_MAGIC) {
+                throw new IOException("The directory does not contain a game archive. directory = " + directory);
+            }
+            if (header.getInt(4) != INDEX_VERSION) {
+                throw new IOException("Unsupported archive version. version = " + header.getInt(4));
+            }
+        }
+        this.count = (indexSize - INDEX_HEADER_SIZE) / Long.BYTES;
+        this.recover();
+    }
+
+    /**
+     * Opens the archive in the given directory with segments of at most {@link #DEFAULT_SEGMENT_SIZE} bytes. The
+     * archive is created, if the directory does not contain an archive.
+     *
+     * @param directory The directory.
+     * @return The archive.
+     * @throws IOException If the archive cannot be opened.
+     */
+    public static GameArchive open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the archive in the given directory. The archive is created, if the directory does not contain an archive.
+     *
+     * @param directory   The directory.
+     * @param segmentSize The maximum size of new segments in bytes.
+     * @return The archive.
+     * @throws IOException              If the archive cannot be opened.
+     * @throws IllegalArgumentException If the segment size is smaller than {@link #MIN_SEGMENT_SIZE}.
+     */
+    public static GameArchive open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The segment size is too small. segmentSize = " + segmentSize);
+        }
+        return new GameArchive(directory, segmentSize);
+    }
+
+    /**
+     * Removes the records, that are not complete in the files, and opens the last segment for appending.
+     *
+     * @throws IOException If the files cannot be read or changed.
+     */
+    private void recover() throws IOException {
+        long end = GameRecordWriter.HEADER_SIZE;
+        this.segmentNumber = 0;
+        while (this.count > 0) {
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES);
+            this.index.read(entry, INDEX_HEADER_SIZE + (this.count - 1) * Long.BYTES);
+            long position = entry.getLong(0);
+            Path file = this.segmentFile((int) (position >>> 32));
+            long offset = (int) position;
+            if (Files.exists(file) && Files.size(file) > offset) {
+                ByteBuffer length = ByteBuffer.allocate(5);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    channel.read(length, offset);
+                }
+                length.flip();
+                long recordEnd;
+                try {
+                    long recordLength = GameRecordFormat.getVarLong(length);
+                    recordEnd = offset + length.position() + recordLength;
+                } catch (RuntimeException e) {
+                    recordEnd = Long.MAX_VALUE;
+                }
+                if (recordEnd <= Files.size(file)) {
+                    this.segmentNumber = (int) (position >>> 32);
+                    end = recordEnd;
+                    break;
+                }
+            }
+            this.count--;
+        }
+        this.index.truncate(INDEX_HEADER_SIZE + this.count * Long.BYTES);
+        this.writtenCount = this.count;
+
+        // remove the segments after the last record
+        int number = this.segmentNumber + 1;
+        while (Files.deleteIfExists(this.segmentFile(number))) {
+            number++;
+        }
+        Path file = this.segmentFile(this.segmentNumber);
+        this.segment = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (this.count == 0) {
+            this.segment.truncate(0);
+            this.writeSegmentHeader();
+        } else {
+            this.segment.truncate(end);
+            this.segmentLength = end;
+        }
+    }
+
+    /**
+     * Gets the file of the given segment.
+     *
+     * @param number The number of the segment.
+     * @return The file.
+     */
+    private Path segmentFile(int number) {
+        return this.directory.resolve(String.format("segment-%05d.vgr", number));
+    }
+
+    /**
+     * Writes the header of a new segment to the buffer.
+     */
+    private void writeSegmentHeader() {
+        this.data.putInt(GameRecordWriter.MAGIC).put((byte) GameRecordWriter.VERSION);
+        this.segmentLength = GameRecordWriter.HEADER_SIZE;
+    }
+
+    /**
+     * Appends the given record to the archive. The moves of the record are replayed to check the record.
+     *
+     * @param record The record.
+     * @return The id of the record.
+     * @throws IOException              If the record cannot be written.
+     * @throws IllegalArgumentException If the record is invalid or a player name is too long.
+     */
+    public synchronized long append(GameRecord record) throws IOException {
+        try {
+            this.game = record.replay(this.game);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Invalid record. record = " + record, e);
+        }
+        this.record.clear();
+        GameRecordFormat.encode(record, this.record);
+        this.record.flip();
+        int length = this.record.remaining();
+        int size = length + (32 - Integer.numberOfLeadingZeros(length) + 6) / 7;
+
+        if (this.segmentLength + size > this.segmentSize) {
+            // start a new segment
+            this.writeData();
+            this.segment.close();
+            if (this.segments.size() > this.segmentNumber) {
+                // the mapping may not contain the last records
+                this.segments.set(this.segmentNumber, null);
+            }
+            this.segmentNumber++;
+            this.segment = FileChannel.open(this.segmentFile(this.segmentNumber), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.writeSegmentHeader();
+        }
+        if (this.data.remaining() < size) {
+            this.writeData();
+        }
+        this.entries.putLong((long) this.segmentNumber << 32 | this.segmentLength);
+        GameRecordFormat.putVarLong(this.data, length);
+        this.data.put(this.record);
+        this.segmentLength += size;
+        long id = this.count++;
+        if (!this.entries.hasRemaining()) {
+            this.flush();
+        }
+        return id;
+    }
+
+    /**
+     * Writes the buffered records and index entries to the files.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        this.writeData();
+        this.entries.flip();
+        this.writeFully(this.index, this.entries, INDEX_HEADER_SIZE + this.writtenCount * Long.BYTES);
+        this.entries.clear();
+        this.writtenCount = this.count;
+    }
+
+    /**
+     * Writes the buffered records to the segment.
+     *
+     * @throws IOException If the segment cannot be written.
+     */
+    private void writeData() throws IOException {
+        this.data.flip();
+        this.writeFully(this.segment, this.data, this.segmentLength - this.data.remaining());
+        this.data.clear();
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer at the given position of the file.
+     *
+     * @param channel  The file.
+     * @param buffer   The buffer.
+     * @param position The position in the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Gets the number of records in the archive.
+     *
+     * @return The number of records.
+     */
+    public synchronized long size() {
+        return this.count;
+    }
+
+    /**
+     * Gets the number of segments of the archive.
+     *
+     * @return The number of segments.
+     */
+    public synchronized int getSegmentCount() {
+        return this.segmentNumber + 1;
+    }
+
+    /**
+     * Gets the record with the given id.
+     *
+     * @param id The id of the record (from 0 to size() - 1).
+     * @return The record.
+     * @throws IOException               If the archive cannot be read.
+     * @throws IndexOutOfBoundsException If there is no record with the given id.
+     */
+    public GameRecord get(long id) throws IOException {
+        return this.get(id, new RecordView()).toRecord();
+    }
+
+    /**
+     * Shows the record with the given id in the given view.
+     *
+     * @param id   The id of the record (from 0 to size() - 1).
+     * @param view The view, that is reused.
+     * @return The view.
+     * @throws IOException               If the archive cannot be read.
+     * @throws IndexOutOfBoundsException If there is no record with the given id.
+     */
+    RecordView get(long id, RecordView view) throws IOException {
+        long position;
+        ByteBuffer segment;
+        synchronized (this) {
+            if (id < 0 || id >= this.count) {
+                throw new IndexOutOfBoundsException("Illegal game id. id = " + id);
+            }
+            if (id >= this.writtenCount) {
+                this.flush();
+            }
+            position = this.getPosition(id);
+            segment = this.getSegment((int) (position >>> 32));
+        }
+        return this.read(segment, (int) position, view);
+    }
+
+    /**
+     * Visits all records of the archive in the order of their ids.
+     *
+     * @param visitor The visitor.
+     * @throws IOException If the archive cannot be read.
+     */
+    public void scan(Visitor visitor) throws IOException {
+        int segments = this.getSegmentCount();
+        for (int number = 0; number < segments; number++) {
+            this.scan(number, visitor);
+        }
+    }
+
+    /**
+     * Visits the records of the given segment in the order of their ids. The records are read from the mapped
+     * segment and shown in one reused {@link RecordView}. The records, that are appended during the scan, are not
+     * visited.
+     *
+     * @param number  The number of the segment (from 0 to getSegmentCount() - 1).
+     * @param visitor The visitor.
+     * @throws IOException               If the archive cannot be read.
+     * @throws IndexOutOfBoundsException If there is no segment with the given number.
+     */
+    public void scan(int number, Visitor visitor) throws IOException {
+        ByteBuffer segment;
+        long id;
+        long end;
+        synchronized (this) {
+            if (number < 0 || number > this.segmentNumber) {
+                throw new IndexOutOfBoundsException("Illegal segment number. number = " + number);
+            }
+            if (this.writtenCount < this.count) {
+                this.flush();
+            }
+            id = this.getFirstId(number);
+            long last = number == this.segmentNumber ? this.count : this.getFirstId(number + 1);
+            if (id == last) {
+                return;
+            }
+            segment = this.getSegment(number);
+            end = last;
+        }
+
+        RecordView view = new RecordView();
+        int offset = GameRecordWriter.HEADER_SIZE;
+        for (; id < end; id++) {
+            this.read(segment, offset, view);
+            visitor.visit(id, view);
+            offset = view.getEnd();
+        }
+    }
+
+    /**
+     * Visits the records with the given ids in the order of their ids. The first record of every segment is found in
+     * the index and the following records are read one after another from the mapped segment, like in
+     * {@link #scan(int, Visitor)}. Different ranges can be scanned by different threads at the same time.
+     *
+     * @param fromId  The id of the first record.
+     * @param toId    The id after the last record.
+     * @param visitor The visitor.
+     * @throws IOException               If the archive cannot be read.
+     * @throws IndexOutOfBoundsException If the range is not within the archive.
+     */
+    public void scan(long fromId, long toId, Visitor visitor) throws IOException {
+        synchronized (this) {
+            if (fromId < 0 || toId < fromId || toId > this.count) {
+                throw new IndexOutOfBoundsException("Illegal range. fromId = " + fromId + ", toId = " + toId);
+            }
+            if (toId > this.writtenCount) {
+                this.flush();
+            }
+        }
+
+        RecordView view = new RecordView();
+        long id = fromId;
+        while (id < toId) {
+            ByteBuffer segment;
+            int offset;
+            long end;
+            synchronized (this) {
+                long position = this.getPosition(id);
+                int number = (int) (position >>> 32);
+                segment = this.getSegment(number);
+                offset = (int) position;
+                end = Math.min(toId, number == this.segmentNumber ? this.count : this.getFirstId(number + 1));
+            }
+            for (; id < end; id++) {
+                this.read(segment, offset, view);
+                visitor.visit(id, view);
+                offset = view.getEnd();
+            }
+        }
+    }
+
+    /**
+     * Shows the record at the given position of the segment in the view.
+     *
+     * @param segment The mapped segment.
+     * @param offset  The position of the length of the record.
+     * @param view    The view.
+     * @return The view.
+     * @throws IOException If the record is damaged.
+     */
+    private RecordView read(ByteBuffer segment, int offset, RecordView view) throws IOException {
+        try {
+            int length = 0;
+            int position = offset;
+            for (int shift = 0; ; shift += 7) {
+                byte b = segment.get(position++);
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            return view.set(segment, position, length);
+        } catch (RuntimeException e) {
+            throw new IOException("The archive is damaged at position " + offset, e);
+        }
+    }
+
+    /**
+     * Gets the position of the record with the given id, which is written to the files.
+     *
+     * @param id The id.
+     * @return The segment number (high 32 bits) and the offset in the segment (low 32 bits).
+     * @throws IOException If the index cannot be mapped.
+     */
+    private long getPosition(long id) throws IOException {
+        int chunk = (int) (id >>> INDEX_CHUNK_BITS);
+        int entry = (int) (id & (1 << INDEX_CHUNK_BITS) - 1) * Long.BYTES;
+        while (this.indexChunks.size() <= chunk) {
+            this.indexChunks.add(null);
+        }
+        MappedByteBuffer buffer = this.indexChunks.get(chunk);
+        if (buffer == null || buffer.capacity() <= entry) {
+            long start = INDEX_HEADER_SIZE + ((long) chunk << INDEX_CHUNK_BITS) * Long.BYTES;
+            long size = Math.min(Long.BYTES << INDEX_CHUNK_BITS,
+                    INDEX_HEADER_SIZE + this.writtenCount * Long.BYTES - start);
+            buffer = this.index.map(FileChannel.MapMode.READ_ONLY, start, size);
+            this.indexChunks.set(chunk, buffer);
+        }
+        return buffer.getLong(entry);
+    }
+
+    /**
+     * Gets the smallest id of the records in the given segment by a binary search in the index.
+     *
+     * @param number The number of the segment.
+     * @return The id or the number of written records, if the segment is empty.
+     * @throws IOException If the index cannot be mapped.
+     */
+    private long getFirstId(int number) throws IOException {
+        long low = 0;
+        long high = this.writtenCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (this.getPosition(middle) >>> 32 < number) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the mapped segment with all records, that are written to the file.
+     *
+     * @param number The number of the segment.
+     * @return The mapped segment.
+     * @throws IOException If the segment cannot be mapped.
+     */
+    private ByteBuffer getSegment(int number) throws IOException {
+        while (this.segments.size() <= number) {
+            this.segments.add(null);
+        }
+        MappedByteBuffer segment = this.segments.get(number);
+        // only the last segment grows, the others are mapped once
+        long length = number == this.segmentNumber ? this.segmentLength - this.data.position() : 0;
+        if (segment == null || segment.capacity() < length) {
+            try (FileChannel channel = FileChannel.open(this.segmentFile(number), StandardOpenOption.READ)) {
+                // the mapping stays valid after the channel is closed
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.capacity() < GameRecordWriter.HEADER_SIZE || segment.getInt(0) != GameRecordWriter.MAGIC) {
+                throw new IOException("The segment is damaged. segment = " + number);
+            }
+            this.segments.set(number, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Writes the buffered records and closes the files.
+     *
+     * @throws IOException If the files cannot be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.segment.close();
+            this.index.close();
+        }
+    }
+
+    /**
+     * Visits the records of a scan.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a record.
+         *
+         * @param id     The id of the record.
+         * @param record The view of the record, which is only valid until this method returns.
+         * @throws IOException If the visitor cannot process the record.
+         */
+        void visit(long id, RecordView record) throws IOException;
+    }
+}
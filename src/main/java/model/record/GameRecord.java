@@ -0,0 +1,271 @@
+package model.record;
+
+import model.VierGewinnt;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The record of a game: the board size, the names of the players, the result, the start and end time and the columns
+ * of all moves. Records are written and read with the {@link GameRecordWriter} and the {@link GameRecordReader}.
+ *
+ * @author Hannes Illy
+ */
+public class GameRecord {
+    /**
+     * The result of a game, that was not finished (e.g. because a player left).
+     */
+    public static final int UNFINISHED = -1;
+    /**
+     * The maximum number of columns or rows of a recorded game.
+     */
+    public static final int MAX_SIZE = 255;
+    /**
+     * The maximum length of a player name in bytes (UTF-8).
+     */
+    public static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * The number of columns of the board.
+     */
+    private final int columns;
+    /**
+     * The number of rows of the board.
+     */
+    private final int rows;
+    /**
+     * The name of player 1.
+     */
+    private final String player1;
+    /**
+     * The name of player 2.
+     */
+    private final String player2;
+    /**
+     * The winner (1 or 2), 0 for a draw or {@link #UNFINISHED}.
+     */
+    private final int result;
+    /**
+     * The start time of the game in milliseconds since 1970-01-01 (UTC).
+     */
+    private final long startTime;
+    /**
+     * The end time of the game in milliseconds since 1970-01-01 (UTC).
+     */
+    private final long endTime;
+    /**
+     * The columns of the moves.
+     */
+    private final int[] moves;
+
+    /**
+     * Creates a record.
+     *
+     * @param columns   The number of columns.
+     * @param rows      The number of rows.
+     * @param player1   The name of player 1.
+     * @param player2   The name of player 2.
+     * @param result    The winner (1 or 2), 0 for a draw or {@link #UNFINISHED}.
+     * @param startTime The start time in milliseconds since 1970-01-01 (UTC).
+     * @param endTime   The end time in milliseconds since 1970-01-01 (UTC), not before the start time.
+     * @param moves     The columns of the moves. The array is not copied.
+     * @throws IllegalArgumentException If a value cannot be recorded.
+     */
+    public GameRecord(int columns, int rows, String player1, String player2, int result, long startTime, long endTime,
+                      int[] moves) {
+        if (columns < 1 || columns > MAX_SIZE || rows < 1 || rows > MAX_SIZE) {
+            throw new IllegalArgumentException("Illegal board size. columns = " + columns + ", rows = " + rows);
+        }
+        if (result < UNFINISHED || result > 2) {
+            throw new IllegalArgumentException("Illegal result. result = " + result);
+        }
+        if (startTime < 0 || endTime < startTime) {
+            throw new IllegalArgumentException("Illegal time. startTime = " + startTime + ", endTime = " + endTime);
+        }
+        if (moves.length > columns * rows) {
+            throw new IllegalArgumentException("Too many moves. moves = " + moves.length);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.player1 = Objects.requireNonNull(player1);
+        this.player2 = Objects.requireNonNull(player2);
+        this.result = result;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.moves = moves;
+    }
+
+    /**
+     * Creates the record of the given game. If the game has not ended, it is recorded as {@link #UNFINISHED}.
+     *
+     * @param game      The game.
+     * @param player1   The name of player 1.
+     * @param player2   The name of player 2.
+     * @param startTime The start time in milliseconds since 1970-01-01 (UTC).
+     * @param endTime   The end time in milliseconds since 1970-01-01 (UTC).
+     * @return The record.
+     */
+    public static GameRecord of(VierGewinnt game, String player1, String player2, long startTime, long endTime) {
+        int[] moves = new int[game.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = game.getMove(i);
+        }
+        return new GameRecord(game.getColumns(), game.getRows(), player1, player2, game.getWinningPlayer(),
+                startTime, endTime, moves);
+    }
+
+    /**
+     * Plays the moves of this record in a new game and checks, that the result of the game is the recorded result.
+     *
+     * @return The game.
+     * @throws IllegalStateException If a move is illegal or the result does not match the moves.
+     */
+    public VierGewinnt replay() {
+        return this.replay(null);
+    }
+
+    /**
+     * Plays the moves of this record in the given game, which is reset before, or in a new game, if the given game
+     * has another size. Checks, that the result of the game is the recorded result.
+     *
+     * @param game The game, that is reused, or {@code null}.
+     * @return The game with the moves of this record.
+     * @throws IllegalStateException If a move is illegal or the result does not match the moves.
+     */
+    VierGewinnt replay(VierGewinnt game) {
+        if (game == null || game.getColumns() != this.columns || game.getRows() != this.rows) {
+            game = new VierGewinnt(this.columns, this.rows);
+        } else {
+            game.reset();
+        }
+        for (int column : this.moves) {
+            if (!game.placePiece(column)) {
+                throw new IllegalStateException("Illegal move. column = " + column);
+            }
+        }
+        // an unfinished game has not ended and a finished game ended with the last move
+        if (game.getWinningPlayer() != this.result) {
+            throw new IllegalStateException("The result does not match the moves. result = " + this.result
+                    + ", moves = " + Arrays.toString(this.moves));
+        }
+        return game;
+    }
+
+    /**
+     * Gets the number of columns of the board.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the number of rows of the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the name of the given player.
+     *
+     * @param player The player (1 or 2).
+     * @return The name.
+     */
+    public String getPlayer(int player) {
+        return player == 1 ? this.player1 : this.player2;
+    }
+
+    /**
+     * Gets the result of the game.
+     *
+     * @return The winner (1 or 2), 0 for a draw or {@link #UNFINISHED}.
+     */
+    public int getResult() {
+        return this.result;
+    }
+
+    /**
+     * Gets the start time of the game.
+     *
+     * @return The start time in milliseconds since 1970-01-01 (UTC).
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Gets the end time of the game.
+     *
+     * @return The end time in milliseconds since 1970-01-01 (UTC).
+     */
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    /**
+     * Gets the number of moves.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return this.moves.length;
+    }
+
+    /**
+     * Gets the column of the given move.
+     *
+     * @param index The number of the move (from 0 to getMoveCount() - 1).
+     * @return The column.
+     */
+    public int getMove(int index) {
+        return this.moves[index];
+    }
+
+    /**
+     * Gets the columns of all moves.
+     *
+     * @return A copy of the columns.
+     */
+    public int[] getMoves() {
+        return this.moves.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GameRecord that = (GameRecord) o;
+        return columns == that.columns &&
+                rows == that.rows &&
+                result == that.result &&
+                startTime == that.startTime &&
+                endTime == that.endTime &&
+                player1.equals(that.player1) &&
+                player2.equals(that.player2) &&
+                Arrays.equals(moves, that.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(columns, rows, player1, player2, this.result, startTime, endTime);
+        return 31 * result + Arrays.hashCode(moves);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{" +
+                "columns=" + columns +
+                ", rows=" + rows +
+                ", player1='" + player1 + '\'' +
+                ", player2='" + player2 + '\'' +
+                ", result=" + result +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", moves=" + Arrays.toString(moves) +
+                '}';
+    }
+}
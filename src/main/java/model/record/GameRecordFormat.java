@@ -0,0 +1,210 @@
+package model.record;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary format of a {@link GameRecord}. A record is encoded as:
+ * <pre>
+ * byte    columns
+ * byte    rows
+ * byte    result + 1 (0 = unfinished, 1 = draw, 2 = player 1 won, 3 = player 2 won)
+ * varlong start time (milliseconds since 1970)
+ * varlong duration (milliseconds)
+ * varint  length, bytes: name of player 1 (UTF-8)
+ * varint  length, bytes: name of player 2 (UTF-8)
+ * varint  number of moves
+ * bytes   the columns of the moves, packed with the fewest bits for the number of columns (3 bits for 5 to 8
+ *         columns, 4 bits for 9 to 16 columns), starting with the lowest bit of the first byte
+ * </pre>
+ * Variable-length integers store 7 bits per byte, starting with the lowest bits. The highest bit of a byte is set, if
+ * more bytes follow.
+ *
+ * @author Hannes Illy
+ */
+final class GameRecordFormat {
+    /**
+     * The maximum size of an encoded record in bytes.
+     */
+    static final int MAX_RECORD_SIZE = 3 + 2 * 10 + 2 * (2 + GameRecord.MAX_NAME_LENGTH) + 3
+            + (GameRecord.MAX_SIZE * GameRecord.MAX_SIZE * 8 + 7) / 8;
+
+    /**
+     * Utility class.
+     */
+    private GameRecordFormat() {
+    }
+
+    /**
+     * Returns the number of bits, that store the column of a move.
+     *
+     * @param columns The number of columns.
+     * @return The number of bits (at least 1).
+     */
+    static int bitsPerMove(int columns) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(columns - 1));
+    }
+
+    /**
+     * Writes the given record to the buffer.
+     *
+     * @param record The record.
+     * @param buffer The buffer with at least {@link #MAX_RECORD_SIZE} remaining bytes.
+     * @throws IllegalArgumentException If a player name is too long.
+     */
+    static void encode(GameRecord record, ByteBuffer buffer) {
+        byte[] name1 = encodeName(record.getPlayer(1));
+        byte[] name2 = encodeName(record.getPlayer(2));
+        buffer.put((byte) record.getColumns());
+        buffer.put((byte) record.getRows());
+        buffer.put((byte) (record.getResult() + 1));
+        putVarLong(buffer, record.getStartTime());
+        putVarLong(buffer, record.getEndTime() - record.getStartTime());
+        putVarLong(buffer, name1.length);
+        buffer.put(name1);
+        putVarLong(buffer, name2.length);
+        buffer.put(name2);
+
+        int moves = record.getMoveCount();
+        putVarLong(buffer, moves);
+        int bits = bitsPerMove(record.getColumns());
+        int value = 0;
+        int count = 0;
+        for (int i = 0; i < moves; i++) {
+            value |= record.getMove(i) << count;
+            count += bits;
+            while (count >= 8) {
+                buffer.put((byte) value);
+                value >>>= 8;
+                count -= 8;
+            }
+        }
+        if (count > 0) {
+            buffer.put((byte) value);
+        }
+    }
+
+    /**
+     * Reads a record from the buffer. The values are checked, but the moves are not replayed.
+     *
+     * @param buffer The buffer, which contains exactly one record between its position and its limit.
+     * @return The record.
+     * @throws IllegalArgumentException If the data is not a valid record.
+     */
+    static GameRecord decode(ByteBuffer buffer) {
+        try {
+            int columns = buffer.get() & 0xFF;
+            int rows = buffer.get() & 0xFF;
+            int result = (buffer.get() & 0xFF) - 1;
+            long startTime = getVarLong(buffer);
+            long endTime = startTime + getVarLong(buffer);
+            String player1 = decodeName(buffer);
+            String player2 = decodeName(buffer);
+            long moveCount = getVarLong(buffer);
+            if (columns == 0 || rows == 0 || moveCount > columns * rows) {
+                throw new IllegalArgumentException("Illegal number of moves. moves = " + moveCount);
+            }
+
+            int[] moves = new int[(int) moveCount];
+            int bits = bitsPerMove(columns);
+            int mask = (1 << bits) - 1;
+            int value = 0;
+            int count = 0;
+            for (int i = 0; i < moves.length; i++) {
+                while (count < bits) {
+                    value |= (buffer.get() & 0xFF) << count;
+                    count += 8;
+                }
+                moves[i] = value & mask;
+                value >>>= bits;
+                count -= bits;
+                if (moves[i] >= columns) {
+                    throw new IllegalArgumentException("Illegal column. column = " + moves[i]);
+                }
+            }
+            if (buffer.hasRemaining() || value != 0) {
+                throw new IllegalArgumentException("Unexpected data after the moves.");
+            }
+            return new GameRecord(columns, rows, player1, player2, result, startTime, endTime, moves);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The record is too short.", e);
+        }
+    }
+
+    /**
+     * Encodes a player name in UTF-8.
+     *
+     * @param name The name.
+     * @return The bytes of the name.
+     * @throws IllegalArgumentException If the name is too long.
+     */
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > GameRecord.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("The name is too long. name = " + name);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a player name.
+     *
+     * @param buffer The buffer.
+     * @return The name.
+     * @throws IllegalArgumentException If the name is too long or not valid UTF-8.
+     */
+    private static String decodeName(ByteBuffer buffer) {
+        long length = getVarLong(buffer);
+        if (length > GameRecord.MAX_NAME_LENGTH || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Illegal name length. length = " + length);
+        }
+        ByteBuffer name = buffer.slice();
+        name.limit((int) length);
+        buffer.position(buffer.position() + (int) length);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            return decoder.decode(name).toString();
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("The name is not valid UTF-8.", e);
+        }
+    }
+
+    /**
+     * Writes a non-negative variable-length integer.
+     *
+     * @param buffer The buffer.
+     * @param value  The value.
+     */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a non-negative variable-length integer.
+     *
+     * @param buffer The buffer.
+     * @return The value.
+     * @throws IllegalArgumentException If the value has more than 63 bits.
+     */
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The variable-length integer is too long.");
+    }
+}
@@ -0,0 +1,152 @@
+package model.record;
+
+import model.VierGewinnt;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the game records, that were written by a {@link GameRecordWriter}, one after another. Every record is
+ * validated: the values must be legal and the moves are replayed, so every move must be legal and the recorded result
+ * must be the result of the moves. Invalid data causes an {@link IOException}.
+ * <p>
+ * The reader reuses one buffer and one game for all records, so any number of records can be read with constant
+ * memory.
+ *
+ * @author Hannes Illy
+ */
+public class GameRecordReader implements Closeable {
+    /**
+     * The stream, from which the records are read.
+     */
+    private final InputStream in;
+    /**
+     * The buffer, in which a record is read.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameRecordFormat.MAX_RECORD_SIZE);
+    /**
+     * The game, in which the records are replayed, or {@code null} before the first record.
+     */
+    private VierGewinnt game = null;
+    /**
+     * The number of read records.
+     */
+    private long count = 0;
+
+    /**
+     * Creates a reader and reads the header of the format from the given stream.
+     *
+     * @param in The stream, which is buffered by the reader.
+     * @throws IOException If the header cannot be read or the stream does not contain game records.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in, 1 << 16);
+        byte[] header = new byte[GameRecordWriter.HEADER_SIZE];
+        this.readFully(header, header.length);
+        int magic = (header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | header[3] & 0xFF;
+        if (magic != GameRecordWriter.MAGIC) {
+            throw new IOException("The stream does not contain game records.");
+        }
+        if (header[4] != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported version. version = " + header[4]);
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The record or {@code null} at the end of the stream.
+     * @throws IOException If the record cannot be read or is invalid.
+     */
+    public GameRecord read() throws IOException {
+        int length = this.readLength();
+        if (length < 0) {
+            return null;
+        }
+        this.buffer.clear();
+        this.readFully(this.buffer.array(), length);
+        this.buffer.limit(length);
+
+        GameRecord record;
+        try {
+            record = GameRecordFormat.decode(this.buffer);
+            this.game = record.replay(this.game);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Invalid record. record = " + this.count, e);
+        }
+        this.count++;
+        return record;
+    }
+
+    /**
+     * Gets the game of the last record, that was read. The game is reused for the next record.
+     *
+     * @return The game with all moves of the last record or {@code null} before the first record.
+     */
+    public VierGewinnt getGame() {
+        return this.game;
+    }
+
+    /**
+     * Gets the number of records, that were read by this reader.
+     *
+     * @return The number of records.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Reads the length of the next record.
+     *
+     * @return The length or -1 at the end of the stream.
+     * @throws IOException If the stream ends within the length or the length is illegal.
+     */
+    private int readLength() throws IOException {
+        int length = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = this.in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("The stream ends within a record.");
+            }
+            length |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                if (length <= 0 || length > GameRecordFormat.MAX_RECORD_SIZE) {
+                    throw new IOException("Illegal record length. length = " + length);
+                }
+                return length;
+            }
+        }
+        throw new IOException("Illegal record length.");
+    }
+
+    /**
+     * Reads the given number of bytes.
+     *
+     * @param bytes  The array, in which the bytes are stored.
+     * @param length The number of bytes.
+     * @throws IOException If the stream ends before.
+     */
+    private void readFully(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = this.in.read(bytes, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("The stream ends within a record.");
+            }
+            offset += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
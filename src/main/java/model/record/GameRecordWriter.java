@@ -0,0 +1,97 @@
+package model.record;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes game records to a stream. The stream starts with the magic number {@code VGGR} and the version of the
+ * format, followed by the records. Every record is prefixed with its length as variable-length integer and encoded
+ * as described in {@link GameRecordFormat}, so a game of 42 moves with short player names needs about 35 bytes.
+ * <p>
+ * The writer reuses one buffer for all records, so any number of records can be written with constant memory.
+ *
+ * @author Hannes Illy
+ */
+public class GameRecordWriter implements Closeable, Flushable {
+    /**
+     * The magic number at the start of a record stream ("VGGR").
+     */
+    static final int MAGIC = 0x56474752;
+    /**
+     * The version of the format.
+     */
+    static final int VERSION = 1;
+    /**
+     * The size of the header (magic number and version) in bytes.
+     */
+    static final int HEADER_SIZE = 5;
+
+    /**
+     * The stream, to which the records are written.
+     */
+    private final OutputStream out;
+    /**
+     * The buffer, in which a record is encoded.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameRecordFormat.MAX_RECORD_SIZE);
+    /**
+     * The buffer, in which the length of a record is encoded.
+     */
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(5);
+    /**
+     * The number of written records.
+     */
+    private long count = 0;
+
+    /**
+     * Creates a writer and writes the header of the format to the given stream.
+     *
+     * @param out The stream, which is buffered by the writer.
+     * @throws IOException If the header cannot be written.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION);
+        this.out.write(header.array());
+    }
+
+    /**
+     * Writes the given record.
+     *
+     * @param record The record.
+     * @throws IOException              If the record cannot be written.
+     * @throws IllegalArgumentException If a player name is longer than {@link GameRecord#MAX_NAME_LENGTH} bytes.
+     */
+    public void write(GameRecord record) throws IOException {
+        this.buffer.clear();
+        GameRecordFormat.encode(record, this.buffer);
+        this.lengthBuffer.clear();
+        GameRecordFormat.putVarLong(this.lengthBuffer, this.buffer.position());
+        this.out.write(this.lengthBuffer.array(), 0, this.lengthBuffer.position());
+        this.out.write(this.buffer.array(), 0, this.buffer.position());
+        this.count++;
+    }
+
+    /**
+     * Gets the number of records, that were written by this writer.
+     *
+     * @return The number of records.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
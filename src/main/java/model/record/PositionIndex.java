@@ -0,0 +1,655 @@
+package model.record;
+
+import model.Board;
+import model.VierGewinnt;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An index of all positions, that were reached in the games of a {@link GameArchive}. For every position the index
+ * stores the ids and results of the games, that reached it, so the games of a position are found without replaying the
+ * archive, e.g. to show the results of every move in an opening explorer (see {@link #getMoveStatistics(VierGewinnt)}).
+ * <p>
+ * The positions are identified by their key (see {@link #getKey(VierGewinnt)}), which contains the board size. Games
+ * are added in the order of their ids and collected in memory. When the buffer is full, the entries are sorted by key
+ * and written to a new run file in the directory of the index. Runs of similar size are merged, so an index of
+ * {@code n} entries has about {@code log(n)} runs. A run is memory-mapped and a lookup is a binary search in every run.
+ * <p>
+ * A run file consists of a header and the sorted entries:
+ * <pre>
+ * int magic ("VGPI"), int version, long first game id, long end game id (exclusive), long entries
+ * (long key, long gameId &lt;&lt; 2 | result + 1)[entries]
+ * </pre>
+ *
+ * @author Hannes Illy
+ */
+public class PositionIndex implements Closeable {
+    /**
+     * The first four bytes of a run file ("VGPI").
+     */
+    static final int MAGIC = 0x56475049;
+    /**
+     * The version of the run format.
+     */
+    static final int VERSION = 1;
+    /**
+     * The size of the run header in bytes.
+     */
+    static final int HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+    /**
+     * The size of an entry in bytes.
+     */
+    static final int ENTRY_SIZE = 2 * Long.BYTES;
+    /**
+     * The maximum number of entries of a run, so the run can be mapped.
+     */
+    static final int MAX_RUN_ENTRIES = (Integer.MAX_VALUE - HEADER_SIZE) / ENTRY_SIZE;
+    /**
+     * The default number of entries, that are collected in memory.
+     */
+    public static final int DEFAULT_BUFFER_ENTRIES = 1 << 20;
+
+    /**
+     * The directory of the index.
+     */
+    private final Path directory;
+    /**
+     * The runs of the index in the order of the game ids.
+     */
+    private final List<Run> runs = new ArrayList<>();
+    /**
+     * The keys of the collected entries.
+     */
+    private final long[] keys;
+    /**
+     * The game ids and results of the collected entries.
+     */
+    private final long[] values;
+    /**
+     * The number of collected entries.
+     */
+    private int size = 0;
+    /**
+     * The id of the first collected game.
+     */
+    private long firstId;
+    /**
+     * The number of games in the index.
+     */
+    private long gameCount;
+    /**
+     * The number of the next run file.
+     */
+    private int nextRun = 0;
+    /**
+     * The game, in which the added games are replayed.
+     */
+    private VierGewinnt game = null;
+    /**
+     * The view, in which the added games are read.
+     */
+    private final RecordView view = new RecordView();
+    /**
+     * The buffer, in which added records are encoded.
+     */
+    private final ByteBuffer record = ByteBuffer.allocate(GameRecordFormat.MAX_RECORD_SIZE);
+
+    /**
+     * Opens the index in the given directory.
+     *
+     * @param directory     The directory.
+     * @param bufferEntries The number of entries, that are collected in memory.
+     * @throws IOException If the index cannot be opened.
+     */
+    private PositionIndex(Path directory, int bufferEntries) throws IOException {
+        this.directory = directory;
+        this.keys = new long[bufferEntries];
+        this.values = new long[bufferEntries];
+        Files.createDirectories(directory);
+
+        List<Run> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "run-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // an unfinished run
+                    Files.delete(file);
+                    continue;
+                }
+                found.add(Run.open(file));
+                int number = Integer.parseInt(name.substring(4, name.indexOf('.')));
+                this.nextRun = Math.max(this.nextRun, number + 1);
+            }
+        }
+        // runs, that were merged into another run, are deleted
+        found.sort(Comparator.comparingLong((Run run) -> run.firstId).thenComparingLong(run -> -run.endId));
+        for (Run run : found) {
+            if (run.endId <= this.gameCount) {
+                Files.delete(run.file);
+            } else if (run.firstId != this.gameCount) {
+                throw new IOException("Missing games in the position index. games = " + this.gameCount);
+            } else {
+                this.runs.add(run);
+                this.gameCount = run.endId;
+            }
+        }
+        this.firstId = this.gameCount;
+    }
+
+    /**
+     * Opens the index in the given directory, which collects {@link #DEFAULT_BUFFER_ENTRIES} entries in memory. The
+     * index is created, if the directory does not contain an index.
+     *
+     * @param directory The directory.
+     * @return The index.
+     * @throws IOException If the index cannot be opened.
+     */
+    public static PositionIndex open(Path directory) throws IOException {
+        return open(directory, DEFAULT_BUFFER_ENTRIES);
+    }
+
+    /**
+     * Opens the index in the given directory. The index is created, if the directory does not contain an index.
+     *
+     * @param directory     The directory.
+     * @param bufferEntries The number of entries, that are collected in memory (at least the positions of a game).
+     * @return The index.
+     * @throws IOException              If the index cannot be opened.
+     * @throws IllegalArgumentException If the buffer is too small.
+     */
+    public static PositionIndex open(Path directory, int bufferEntries) throws IOException {
+        if (bufferEntries <= GameRecord.MAX_SIZE * GameRecord.MAX_SIZE || bufferEntries > MAX_RUN_ENTRIES) {
+            throw new IllegalArgumentException("Illegal buffer size. bufferEntries = " + bufferEntries);
+        }
+        return new PositionIndex(directory, bufferEntries);
+    }
+
+    /**
+     * Gets the key of the current position of the given game. The key is the Zobrist key of the position (see
+     * {@link Board#getPositionKey()}) combined with the board size, so equal positions on boards of different sizes
+     * have different keys.
+     *
+     * @param game The game.
+     * @return The key.
+     */
+    public static long getKey(VierGewinnt game) {
+        // piece 3 does not exist, so the key of the size differs from the keys of all pieces
+        return game.getPositionKey() ^ Board.zobristKey(game.getColumns(), game.getRows(), 3);
+    }
+
+    /**
+     * Gets the number of games in the index. The next added game must have this id.
+     *
+     * @return The number of games.
+     */
+    public synchronized long getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * Gets the number of runs, that are written to the directory.
+     *
+     * @return The number of runs.
+     */
+    public synchronized int getRunCount() {
+        return this.runs.size();
+    }
+
+    /**
+     * Adds all games of the archive, that are not in the index yet.
+     *
+     * @param archive The archive, whose games were added in the order of their ids.
+     * @return The number of added games.
+     * @throws IOException If the archive cannot be read or the index cannot be written.
+     */
+    public synchronized long update(GameArchive archive) throws IOException {
+        long start = this.gameCount;
+        long end = archive.size();
+        for (long id = start; id < end; id++) {
+            this.add(id, archive.get(id, this.view));
+        }
+        return end - start;
+    }
+
+    /**
+     * Adds all positions of the given game, including the empty board.
+     *
+     * @param id     The id of the game, which must be {@link #getGameCount()}.
+     * @param record The game.
+     * @throws IOException              If a run cannot be written.
+     * @throws IllegalArgumentException If the game has another id or an illegal move.
+     */
+    public synchronized void add(long id, GameRecord record) throws IOException {
+        this.record.clear();
+        GameRecordFormat.encode(record, this.record);
+        this.add(id, this.view.set(this.record, 0, this.record.position()));
+    }
+
+    /**
+     * Adds all positions of the given game, including the empty board.
+     *
+     * @param id     The id of the game, which must be {@link #getGameCount()}.
+     * @param record The game.
+     * @throws IOException              If a run cannot be written.
+     * @throws IllegalArgumentException If the game has another id or an illegal move.
+     */
+    public synchronized void add(long id, RecordView record) throws IOException {
+        if (id != this.gameCount) {
+            throw new IllegalArgumentException("Games must be added in order. id = " + id + ", expected = "
+                    + this.gameCount);
+        }
+        if (this.game == null || this.game.getColumns() != record.getColumns()
+                || this.game.getRows() != record.getRows()) {
+            this.game = new VierGewinnt(record.getColumns(), record.getRows());
+        } else {
+            this.game.reset();
+        }
+        if (this.size + record.getMoveCount() + 1 > this.keys.length) {
+            this.flush();
+        }
+
+        long value = id << 2 | record.getResult() + 1;
+        int start = this.size;
+        this.keys[this.size] = getKey(this.game);
+        this.values[this.size++] = value;
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            if (!this.game.placePiece(record.getMove(i))) {
+                this.size = start;
+                throw new IllegalArgumentException("Illegal move. column = " + record.getMove(i));
+            }
+            this.keys[this.size] = getKey(this.game);
+            this.values[this.size++] = value;
+        }
+        this.gameCount++;
+    }
+
+    /**
+     * Sorts the collected entries and writes them to a new run. Runs of similar size are merged.
+     *
+     * @throws IOException If the run cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (this.gameCount == this.firstId) {
+            return;
+        }
+        sort(this.keys, this.values, 0, this.size - 1);
+        Path file = this.directory.resolve(String.format("run-%05d.vpi", this.nextRun++));
+        Path temporary = this.directory.resolve(file.getFileName() + ".tmp");
+        try (DataOutputStream out = this.createRun(temporary, this.firstId, this.gameCount, this.size)) {
+            for (int i = 0; i < this.size; i++) {
+                out.writeLong(this.keys[i]);
+                out.writeLong(this.values[i]);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        this.runs.add(Run.open(file));
+        this.size = 0;
+        this.firstId = this.gameCount;
+
+        // merge the last two runs, while the last run is not smaller than the run before
+        while (this.runs.size() >= 2) {
+            Run last = this.runs.get(this.runs.size() - 1);
+            Run previous = this.runs.get(this.runs.size() - 2);
+            if (last.entries < previous.entries || (long) last.entries + previous.entries > MAX_RUN_ENTRIES) {
+                break;
+            }
+            this.runs.remove(this.runs.size() - 1);
+            this.runs.set(this.runs.size() - 1, this.merge(previous, last));
+        }
+    }
+
+    /**
+     * Merges two adjacent runs into a new run and deletes them.
+     *
+     * @param first  The run with the smaller game ids.
+     * @param second The run with the larger game ids.
+     * @return The new run.
+     * @throws IOException If the run cannot be written.
+     */
+    private Run merge(Run first, Run second) throws IOException {
+        Path file = this.directory.resolve(String.format("run-%05d.vpi", this.nextRun++));
+        Path temporary = this.directory.resolve(file.getFileName() + ".tmp");
+        try (DataOutputStream out = this.createRun(temporary, first.firstId, second.endId,
+                first.entries + second.entries)) {
+            int i = 0;
+            int j = 0;
+            while (i < first.entries || j < second.entries) {
+                // the games of the first run have smaller ids, so the entries of a key stay sorted by id
+                Run run;
+                int index;
+                if (j == second.entries || i < first.entries && first.getKey(i) <= second.getKey(j)) {
+                    run = first;
+                    index = i++;
+                } else {
+                    run = second;
+                    index = j++;
+                }
+                out.writeLong(run.getKey(index));
+                out.writeLong(run.getValue(index));
+            }
+        }
+        // the old runs are deleted after the new run is complete, see the constructor
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(first.file);
+        Files.delete(second.file);
+        return Run.open(file);
+    }
+
+    /**
+     * Creates a run file and writes the header.
+     *
+     * @param file    The file.
+     * @param firstId The id of the first game of the run.
+     * @param endId   The id after the last game of the run.
+     * @param entries The number of entries.
+     * @return The stream, to which the entries are written.
+     * @throws IOException If the file cannot be written.
+     */
+    private DataOutputStream createRun(Path file, long firstId, long endId, int entries) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(firstId);
+        out.writeLong(endId);
+        out.writeLong(entries);
+        return out;
+    }
+
+    /**
+     * Finds the games of the given positions. The keys are sorted and searched in every run, starting at the position
+     * of the previous key, so a batch of keys is found faster than every key on its own. The visitor gets the games of
+     * a key in the order of their ids and the keys in ascending order. The collected games are written to a run before.
+     *
+     * @param keys    The keys of the positions (see {@link #getKey(VierGewinnt)}), which are not changed.
+     * @param visitor The visitor.
+     * @throws IOException If the collected games cannot be written.
+     */
+    public synchronized void lookup(long[] keys, Visitor visitor) throws IOException {
+        this.flush();
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int[] starts = new int[this.runs.size()];
+        for (int k = 0; k < sorted.length; k++) {
+            long key = sorted[k];
+            if (k > 0 && key == sorted[k - 1]) {
+                continue;
+            }
+            for (int r = 0; r < starts.length; r++) {
+                Run run = this.runs.get(r);
+                int index = run.lowerBound(key, starts[r]);
+                for (; index < run.entries && run.getKey(index) == key; index++) {
+                    long value = run.getValue(index);
+                    visitor.visit(key, value >>> 2, (int) (value & 3) - 1);
+                }
+                starts[r] = index;
+            }
+        }
+    }
+
+    /**
+     * Counts the results of the games of the given positions.
+     *
+     * @param keys The keys of the positions (see {@link #getKey(VierGewinnt)}).
+     * @return The counts for every key: index 0 = unfinished games, 1 = draws, 2 = wins of player 1, 3 = wins of
+     * player 2.
+     * @throws IOException If the collected games cannot be written.
+     */
+    public long[][] getResultCounts(long[] keys) throws IOException {
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        long[][] sortedCounts = new long[sorted.length][4];
+        this.lookup(sorted, (key, id, result) -> sortedCounts[Arrays.binarySearch(sorted, key)][result + 1]++);
+
+        long[][] counts = new long[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            counts[i] = sortedCounts[Arrays.binarySearch(sorted, keys[i])].clone();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the results of the games, that reached the position after every possible move of the given game.
+     *
+     * @param game The game, which is not changed.
+     * @return The counts for every column (see {@link #getResultCounts(long[])}). The counts of illegal moves are 0.
+     * @throws IOException If the collected games cannot be written.
+     */
+    public long[][] getMoveStatistics(VierGewinnt game) throws IOException {
+        long[] keys = new long[game.getColumns()];
+        boolean[] legal = new boolean[keys.length];
+        for (int column = 0; column < keys.length; column++) {
+            legal[column] = game.placePiece(column);
+            if (legal[column]) {
+                keys[column] = getKey(game);
+                game.undo();
+            }
+        }
+        long[][] counts = this.getResultCounts(keys);
+        for (int column = 0; column < keys.length; column++) {
+            if (!legal[column]) {
+                Arrays.fill(counts[column], 0);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the collected games to a run.
+     *
+     * @throws IOException If the run cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.flush();
+    }
+
+    /**
+     * Sorts the entries by key and game id (quicksort).
+     *
+     * @param keys   The keys.
+     * @param values The game ids and results.
+     * @param low    The first index.
+     * @param high   The last index.
+     */
+    private static void sort(long[] keys, long[] values, int low, int high) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            long pivotKey = keys[middle];
+            long pivotValue = values[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(keys[i], values[i], pivotKey, pivotValue) < 0) {
+                    i++;
+                }
+                while (compare(keys[j], values[j], pivotKey, pivotValue) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // recurse into the smaller part, so the stack depth is logarithmic
+            if (j - low < high - i) {
+                sort(keys, values, low, j);
+                low = i;
+            } else {
+                sort(keys, values, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(keys[j], values[j], keys[j - 1], values[j - 1]) < 0; j--) {
+                swap(keys, values, j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Compares two entries by key and game id.
+     *
+     * @param key1   The key of the first entry.
+     * @param value1 The value of the first entry.
+     * @param key2   The key of the second entry.
+     * @param value2 The value of the second entry.
+     * @return A negative number, 0 or a positive number, if the first entry is smaller, equal or greater.
+     */
+    private static int compare(long key1, long value1, long key2, long value2) {
+        return key1 != key2 ? Long.compare(key1, key2) : Long.compare(value1, value2);
+    }
+
+    /**
+     * Swaps two entries.
+     *
+     * @param keys   The keys.
+     * @param values The game ids and results.
+     * @param i      The index of the first entry.
+     * @param j      The index of the second entry.
+     */
+    private static void swap(long[] keys, long[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    /**
+     * Visits the games of a lookup.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a game, that reached a position.
+         *
+         * @param key    The key of the position.
+         * @param id     The id of the game.
+         * @param result The result of the game (see {@link GameRecord#getResult()}).
+         */
+        void visit(long key, long id, int result);
+    }
+
+    /**
+     * A mapped run file.
+     */
+    private static final class Run {
+        /**
+         * The file of the run.
+         */
+        private final Path file;
+        /**
+         * The id of the first game of the run.
+         */
+        private final long firstId;
+        /**
+         * The id after the last game of the run.
+         */
+        private final long endId;
+        /**
+         * The number of entries.
+         */
+        private final int entries;
+        /**
+         * The mapped entries.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates a run.
+         *
+         * @param file    The file of the run.
+         * @param firstId The id of the first game of the run.
+         * @param endId   The id after the last game of the run.
+         * @param entries The number of entries.
+         * @param buffer  The mapped entries.
+         */
+        private Run(Path file, long firstId, long endId, int entries, ByteBuffer buffer) {
+            this.file = file;
+            this.firstId = firstId;
+            this.endId = endId;
+            this.entries = entries;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps the given run file.
+         *
+         * @param file The file.
+         * @return The run.
+         * @throws IOException If the file cannot be read or is not a valid run.
+         */
+        private static Run open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                    throw new IOException("Illegal size of the run. file = " + file);
+                }
+                // the mapping stays valid after the channel is closed
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                long entries = buffer.getLong(24);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                        || size != HEADER_SIZE + entries * ENTRY_SIZE) {
+                    throw new IOException("The run is damaged. file = " + file);
+                }
+                return new Run(file, buffer.getLong(8), buffer.getLong(16), (int) entries, buffer);
+            }
+        }
+
+        /**
+         * Gets the key of the given entry.
+         *
+         * @param index The index of the entry.
+         * @return The key.
+         */
+        private long getKey(int index) {
+            return this.buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+        }
+
+        /**
+         * Gets the game id and result of the given entry.
+         *
+         * @param index The index of the entry.
+         * @return The game id (high 62 bits) and result + 1 (low 2 bits).
+         */
+        private long getValue(int index) {
+            return this.buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE + Long.BYTES);
+        }
+
+        /**
+         * Finds the first entry with a key, that is not smaller than the given key (binary search).
+         *
+         * @param key  The key.
+         * @param from The first index, that is searched.
+         * @return The index of the entry or the number of entries.
+         */
+        private int lowerBound(long key, int from) {
+            int low = from;
+            int high = this.entries;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.getKey(middle) < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
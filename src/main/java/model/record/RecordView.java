@@ -0,0 +1,263 @@
+package model.record;
+
+import model.VierGewinnt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view of an encoded game record (see {@link GameRecordFormat}) in a buffer, e.g. a memory-mapped segment of a
+ * {@link GameArchive}. The values are read from the buffer on demand, so a scan over many records does not copy the
+ * moves or create objects. A view is reused for the next record, so it is only valid until the visitor returns.
+ *
+ * @author Hannes Illy
+ */
+public final class RecordView {
+    /**
+     * The buffer, which contains the record. Only absolute methods are used, so the buffer can be shared.
+     */
+    private ByteBuffer buffer;
+    /**
+     * The position of the record in the buffer.
+     */
+    private int offset;
+    /**
+     * The length of the record in bytes.
+     */
+    private int length;
+    /**
+     * The number of columns of the board.
+     */
+    private int columns;
+    /**
+     * The number of rows of the board.
+     */
+    private int rows;
+    /**
+     * The result of the game.
+     */
+    private int result;
+    /**
+     * The start time of the game.
+     */
+    private long startTime;
+    /**
+     * The duration of the game.
+     */
+    private long duration;
+    /**
+     * The position of the name of player 1.
+     */
+    private int namePosition;
+    /**
+     * The number of moves.
+     */
+    private int moveCount;
+    /**
+     * The position of the packed moves.
+     */
+    private int movePosition;
+    /**
+     * The number of bits per move.
+     */
+    private int bitsPerMove;
+    /**
+     * The position, at which the last variable-length integer ended.
+     */
+    private int position;
+
+    /**
+     * Creates an empty view.
+     */
+    RecordView() {
+    }
+
+    /**
+     * Shows the given record.
+     *
+     * @param buffer The buffer, which contains the record.
+     * @param offset The position of the record in the buffer.
+     * @param length The length of the record in bytes.
+     * @return This view.
+     * @throws IllegalArgumentException If the header of the record is invalid.
+     */
+    RecordView set(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.columns = buffer.get(offset) & 0xFF;
+        this.rows = buffer.get(offset + 1) & 0xFF;
+        this.result = (buffer.get(offset + 2) & 0xFF) - 1;
+        this.position = offset + 3;
+        this.startTime = this.readVarLong();
+        this.duration = this.readVarLong();
+        this.namePosition = this.position;
+        int nameLength = (int) this.readVarLong();
+        this.position += nameLength;
+        nameLength = (int) this.readVarLong();
+        this.position += nameLength;
+        this.moveCount = (int) this.readVarLong();
+        this.movePosition = this.position;
+        this.bitsPerMove = GameRecordFormat.bitsPerMove(this.columns);
+        if (this.movePosition + (this.moveCount * this.bitsPerMove + 7) / 8 != offset + length) {
+            throw new IllegalArgumentException("Invalid record at position " + offset);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the position behind the record in the buffer.
+     *
+     * @return The end of the record.
+     */
+    int getEnd() {
+        return this.offset + this.length;
+    }
+
+    /**
+     * Gets the number of columns of the board.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the number of rows of the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the result of the game.
+     *
+     * @return The winner (1 or 2), 0 for a draw or {@link GameRecord#UNFINISHED}.
+     */
+    public int getResult() {
+        return this.result;
+    }
+
+    /**
+     * Gets the start time of the game.
+     *
+     * @return The start time in milliseconds since 1970-01-01 (UTC).
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Gets the end time of the game.
+     *
+     * @return The end time in milliseconds since 1970-01-01 (UTC).
+     */
+    public long getEndTime() {
+        return this.startTime + this.duration;
+    }
+
+    /**
+     * Gets the name of the given player. The name is decoded on every call.
+     *
+     * @param player The player (1 or 2).
+     * @return The name.
+     */
+    public String getPlayer(int player) {
+        this.position = this.namePosition;
+        int length = (int) this.readVarLong();
+        if (player == 2) {
+            this.position += length;
+            length = (int) this.readVarLong();
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(this.position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of moves.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Gets the column of the given move.
+     *
+     * @param index The number of the move (from 0 to getMoveCount() - 1).
+     * @return The column.
+     * @throws IndexOutOfBoundsException If there is no move with the given number.
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= this.moveCount) {
+            throw new IndexOutOfBoundsException("Illegal move number. index = " + index);
+        }
+        int bit = index * this.bitsPerMove;
+        int position = this.movePosition + (bit >>> 3);
+        int shift = bit & 7;
+        int value = (this.buffer.get(position) & 0xFF) >>> shift;
+        if (shift + this.bitsPerMove > 8) {
+            value |= (this.buffer.get(position + 1) & 0xFF) << (8 - shift);
+        }
+        return value & ((1 << this.bitsPerMove) - 1);
+    }
+
+    /**
+     * Plays the moves of the record in the given game, which is reset before, or in a new game, if the given game
+     * has another size.
+     *
+     * @param game The game, that is reused, or {@code null}.
+     * @return The game with the moves of the record.
+     * @throws IllegalStateException If a move is illegal.
+     */
+    public VierGewinnt replay(VierGewinnt game) {
+        if (game == null || game.getColumns() != this.columns || game.getRows() != this.rows) {
+            game = new VierGewinnt(this.columns, this.rows);
+        } else {
+            game.reset();
+        }
+        for (int i = 0; i < this.moveCount; i++) {
+            int column = this.getMove(i);
+            if (!game.placePiece(column)) {
+                throw new IllegalStateException("Illegal move. column = " + column);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Copies the record into a new {@link GameRecord}, which stays valid after the view is reused.
+     *
+     * @return The record.
+     * @throws IllegalArgumentException If the record is invalid.
+     */
+    public GameRecord toRecord() {
+        ByteBuffer record = this.buffer.duplicate();
+        record.limit(this.offset + this.length).position(this.offset);
+        return GameRecordFormat.decode(record.slice());
+    }
+
+    /**
+     * Reads a variable-length integer at the current position and moves the position behind it.
+     *
+     * @return The value.
+     */
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            byte b = this.buffer.get(this.position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The variable-length integer is too long.");
+    }
+}
@@ -15,6 +15,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 import model.VierGewinnt;
 import model.net.Client;
+import model.net.ConnectionThreads;
 import model.net.server.Server;
 import view.event.GameInputEvent;
 
@@ -158,7 +159,7 @@ public class Main extends Application {
                 }
                 gameView.drawGame();
             });
-            new Thread(client).start();
+            ConnectionThreads.start(client, "Client");
 
             game = new VierGewinnt();
             gameView(e -> {
@@ -87,7 +87,7 @@ public class View extends Application {
         // Create client (Join the server and start the client thread).
         try {
             Client client = new Client(ipAddress, playerName.getText(), event -> System.out.println());
-            new Thread(client).start();
+            ConnectionThreads.start(client, "Client");
         } catch (IOException ex) {
             errorPopup(ex.getMessage());
         }
@@ -103,7 +103,7 @@ public class View extends Application {
             // Create client (Join the server and start the client thread).
             try {
                 Client client = new Client(InetAddress.getLocalHost(), playerName.getText(), event -> System.out.println());
-                new Thread(client).start();
+                ConnectionThreads.start(client, "Client");
             } catch (IOException ex) {
                 errorPopup(ex.getMessage());
             }
@@ -0,0 +1,146 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitBoardTest {
+
+    private static final int DEFAULT_COLUMNS = 7;
+    private static final int DEFAULT_ROWS = 6;
+
+    /**
+     * Tests which board sizes fit into a bit board and which implementation is created.
+     */
+    @Test
+    public void createTest() {
+        assertTrue(BitBoard.fits(DEFAULT_ROWS, DEFAULT_COLUMNS));
+        assertTrue(BitBoard.fits(7, 8));
+        assertFalse(BitBoard.fits(8, 8));
+        assertFalse(BitBoard.fits(64, 1));
+        assertFalse(BitBoard.fits(0, 7));
+
+        assertTrue(Board.create(DEFAULT_ROWS, DEFAULT_COLUMNS) instanceof BitBoard);
+        assertFalse(Board.create(15, 15) instanceof BitBoard);
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(15, 15));
+    }
+
+    /**
+     * Place pieces on a default board and fill it completely.
+     */
+    @Test
+    public void placePieceTest() {
+        BitBoard board = new BitBoard();
+
+        assertEquals(DEFAULT_ROWS, board.getRows());
+        assertEquals(DEFAULT_COLUMNS, board.getColumns());
+        assertFalse(board.placePiece(0, 0));
+        assertFalse(board.placePiece(-1, 1));
+        assertFalse(board.placePiece(DEFAULT_COLUMNS, 1));
+
+        assertTrue(board.placePiece(0, 1));
+        assertTrue(board.placePiece(0, 2));
+        assertEquals(1, board.getField(0, 0));
+        assertEquals(2, board.getField(0, 1));
+        assertEquals(0, board.getField(0, 2));
+        assertEquals(-1, board.getField(0, DEFAULT_ROWS));
+        assertEquals(1, board.getLastPiecePosition(0));
+
+        for (int c = 0; c < DEFAULT_COLUMNS; c++) {
+            while (board.canPlacePiece(c)) {
+                assertFalse(board.isFull());
+                assertTrue(board.placePiece(c, 2));
+            }
+            assertFalse(board.placePiece(c, 1));
+            assertEquals(DEFAULT_ROWS - 1, board.getLastPiecePosition(c));
+        }
+        assertTrue(board.isFull());
+        assertEquals(0, board.getPlayableMask());
+    }
+
+    /**
+     * Tests the detection of four in a row in every direction.
+     */
+    @Test
+    public void isWinningPieceTest() {
+        // horizontal
+        BitBoard board = new BitBoard();
+        for (int c = 3; c < DEFAULT_COLUMNS; c++) {
+            board.placePiece(c, 1);
+        }
+        assertTrue(board.isWinningPiece(5, 0));
+        assertFalse(board.isWinningPiece(2, 0));
+
+        // vertical, with a piece of the other player below
+        board = new BitBoard();
+        board.placePiece(1, 2);
+        for (int r = 0; r < 3; r++) {
+            board.placePiece(1, 1);
+        }
+        assertFalse(board.isWinningPiece(1, 3));
+        board.placePiece(1, 1);
+        assertTrue(board.isWinningPiece(1, 4));
+        assertFalse(board.isWinningPiece(1, 0));
+
+        // diagonals must not wrap around to the next column
+        board = new BitBoard();
+        int[] diagonal = {0, 2, 1, 1, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 2, 1, 1, 2, 2};
+        int piece = 1;
+        for (int column : diagonal) {
+            board.placePiece(column, piece);
+            piece = 3 - piece;
+        }
+        for (int c = 0; c < DEFAULT_COLUMNS; c++) {
+            for (int r = 0; r < DEFAULT_ROWS; r++) {
+                assertEquals(referenceBoard(board).isWinningPiece(c, r), board.isWinningPiece(c, r));
+            }
+        }
+    }
+
+    /**
+     * Compares the bit board with the default board after random moves on different board sizes.
+     */
+    @Test
+    public void compareWithBoardTest() {
+        Random random = new Random(42);
+        int[][] sizes = {{DEFAULT_ROWS, DEFAULT_COLUMNS}, {4, 4}, {7, 8}, {3, 15}, {15, 3}, {31, 2}, {63, 1}};
+        for (int[] size : sizes) {
+            for (int game = 0; game < 200; game++) {
+                Board expected = new Board(size[0], size[1]);
+                BitBoard board = new BitBoard(size[0], size[1]);
+                for (int move = 0; move < size[0] * size[1]; move++) {
+                    int column = random.nextInt(size[1]);
+                    int piece = random.nextInt(2) + 1;
+                    assertEquals(expected.placePiece(column, piece), board.placePiece(column, piece));
+                    assertEquals(expected.isFull(), board.isFull());
+                    for (int c = 0; c < size[1]; c++) {
+                        assertEquals(expected.getLastPiecePosition(c), board.getLastPiecePosition(c));
+                        assertEquals(expected.canPlacePiece(c), board.canPlacePiece(c));
+                        for (int r = 0; r < size[0]; r++) {
+                            assertEquals(expected.getField(c, r), board.getField(c, r));
+                            assertEquals(expected.isWinningPiece(c, r), board.isWinningPiece(c, r));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the given board into a default (array based) board.
+     *
+     * @param board The board that is copied.
+     * @return A board with the same pieces.
+     */
+    private Board referenceBoard(Board board) {
+        Board copy = new Board(board.getRows(), board.getColumns());
+        for (int c = 0; c < board.getColumns(); c++) {
+            for (int r = 0; r < board.getRows(); r++) {
+                copy.placePiece(c, board.getField(c, r));
+            }
+        }
+        return copy;
+    }
+}
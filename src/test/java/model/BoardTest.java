@@ -2,6 +2,8 @@ package model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BoardTest {
@@ -439,4 +441,111 @@ public class BoardTest {
         }
         assertTrue(board.isFull());
     }
+
+    /**
+     * Checks the column heights and the move counter of a custom size board.
+     */
+    @Test
+    public void getHeightTest() {
+        int rows = 20;
+        int columns = 5;
+        Board board = new Board(rows, columns);
+
+        assertEquals(-1, board.getHeight(-1));
+        assertEquals(-1, board.getHeight(columns));
+        assertEquals(0, board.getHeight(0));
+        assertEquals(0, board.getMoveCount());
+
+        for (int i = 0; i < rows; i++) {
+            assertTrue(board.placePiece(2, 1 + i % 2));
+            assertEquals(i + 1, board.getHeight(2));
+            assertEquals(i, board.getLastPiecePosition(2));
+        }
+        assertTrue(board.placePiece(4, 1));
+        assertFalse(board.placePiece(2, 1));
+
+        assertArrayEquals(new int[]{0, 0, rows, 0, 1}, board.getHeights());
+        assertEquals(rows + 1, board.getMoveCount());
+        assertFalse(board.canPlacePiece(2));
+        assertTrue(board.canPlacePiece(3));
+    }
+
+    /**
+     * Checks that the position key and equals only depend on the pieces on the board.
+     */
+    @Test
+    public void positionKeyTest() {
+        Board board = new Board();
+        Board other = new BitBoard();
+        assertEquals(0L, board.getPositionKey());
+        assertEquals(board, other);
+
+        // same position, different order of moves
+        board.placePiece(3, 1);
+        board.placePiece(4, 2);
+        board.placePiece(2, 1);
+        other.placePiece(2, 1);
+        other.placePiece(4, 2);
+        other.placePiece(3, 1);
+        assertEquals(board.getPositionKey(), other.getPositionKey());
+        assertEquals(board, other);
+        assertEquals(board.hashCode(), other.hashCode());
+
+        // different pieces on the same fields
+        Board swapped = new Board();
+        swapped.placePiece(3, 2);
+        swapped.placePiece(4, 1);
+        swapped.placePiece(2, 2);
+        assertNotEquals(board.getPositionKey(), swapped.getPositionKey());
+        assertNotEquals(board, swapped);
+
+        // removing pieces restores the key
+        long key = board.getPositionKey();
+        board.placePiece(3, 2);
+        other.placePiece(3, 2);
+        assertNotEquals(key, board.getPositionKey());
+        assertEquals(board.getPositionKey(), other.getPositionKey());
+        assertTrue(board.removePiece(3));
+        assertTrue(other.removePiece(3));
+        assertEquals(key, board.getPositionKey());
+        assertEquals(key, other.getPositionKey());
+        assertNotEquals(board, new Board(6, 8));
+    }
+
+    /**
+     * Tests that the mirror key is the key of the mirrored position and that both have the same canonical key.
+     */
+    @Test
+    public void mirrorKeyTest() {
+        Random random = new Random(11);
+        for (Board board : new Board[]{new Board(), new BitBoard(), new Board(5, 9)}) {
+            Board mirror = new Board(board.getRows(), board.getColumns());
+            int columns = board.getColumns();
+            assertEquals(0L, board.getMirrorKey());
+            for (int i = 0; i < 20; i++) {
+                int column = random.nextInt(columns);
+                if (board.placePiece(column, i % 2 + 1)) {
+                    mirror.placePiece(columns - 1 - column, i % 2 + 1);
+                }
+                assertEquals(mirror.getPositionKey(), board.getMirrorKey());
+                assertEquals(board.getPositionKey(), mirror.getMirrorKey());
+                assertEquals(board.getCanonicalKey(), mirror.getCanonicalKey());
+                assertEquals(Math.min(board.getPositionKey(), board.getMirrorKey()), board.getCanonicalKey());
+            }
+            for (int column = 0; column < columns; column++) {
+                while (board.removePiece(column)) {
+                    assertTrue(mirror.removePiece(columns - 1 - column));
+                    assertEquals(mirror.getPositionKey(), board.getMirrorKey());
+                }
+            }
+            assertEquals(0L, board.getMirrorKey());
+        }
+
+        // a symmetric position has equal keys
+        Board board = new Board();
+        board.placePiece(3, 1);
+        board.placePiece(2, 2);
+        board.placePiece(4, 2);
+        assertEquals(board.getPositionKey(), board.getMirrorKey());
+    }
 }
@@ -0,0 +1,96 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    /**
+     * Tests the counts of the first moves on the default board.
+     */
+    @Test
+    public void countTest() {
+        Perft perft = new Perft(6, 7);
+        long expected = 1;
+        for (int depth = 1; depth <= 6; depth++) {
+            expected *= 7;
+            PerftResult result = perft.count(new int[0], depth);
+            assertEquals(expected, result.getNodes());
+            assertEquals(0, result.getWins(1) + result.getWins(2) + result.getDraws());
+        }
+        // the sequences with all seven pieces in one column are illegal
+        PerftResult result = perft.count(new int[0], 7);
+        assertEquals(823543 - 7, result.getNodes());
+        assertTrue(result.getWins(1) > 0);
+        assertEquals(0, result.getWins(2));
+
+        assertThrows(IllegalArgumentException.class, () -> perft.count(new int[]{0, 0, 0, 0, 0, 0, 0}, 1));
+        assertThrows(IllegalArgumentException.class, () -> perft.count(new int[]{0, 1, 0, 1, 0, 1, 0}, 1));
+    }
+
+    /**
+     * Compares the board implementations, the hash table and the parallel count.
+     */
+    @Test
+    public void compareTest() {
+        int[] start = {3, 2, 3};
+        PerftResult expected = new Perft(() -> new Board(6, 7)).count(start, 7);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            PerftResult[] results = {
+                    new Perft(BitBoard::new).count(start, 7),
+                    new Perft(6, 7).setHashTable(16).count(start, 7),
+                    new Perft(6, 7).countParallel(start, 7, pool),
+                    new Perft(() -> new Board(6, 7)).setHashTable(12).countParallel(start, 7, pool)
+            };
+            for (PerftResult result : results) {
+                assertTrue(expected.hasSameCounts(result), result.toString());
+            }
+            // the hash table saves visits
+            assertTrue(results[1].getVisitedNodes() < expected.getVisitedNodes());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts all games of a small board and compares the counts with the games played by {@link VierGewinnt}.
+     */
+    @Test
+    public void fullGameTest() {
+        long[] expected = new long[4];
+        countGames(new VierGewinnt(4, 3), expected);
+
+        PerftResult result = new Perft(3, 4).setHashTable(10).count(new int[0], 12);
+        assertEquals(expected[0], result.getDraws());
+        assertEquals(expected[1], result.getWins(1));
+        assertEquals(expected[2], result.getWins(2));
+        // sequences with all 12 moves are draws or wins with the last piece
+        assertEquals(expected[3], result.getNodes());
+    }
+
+    /**
+     * Plays all games and counts the results (index 0 = draw, 1 or 2 = winner) and the games with 12 moves (index 3).
+     *
+     * @param game   The game, which is restored.
+     * @param counts The counts.
+     */
+    private static void countGames(VierGewinnt game, long[] counts) {
+        for (int column = 0; column < game.getColumns(); column++) {
+            if (game.placePiece(column)) {
+                if (game.hasEnded()) {
+                    counts[game.getWinningPlayer()]++;
+                    if (game.getMoveCount() == 12) {
+                        counts[3]++;
+                    }
+                } else {
+                    countGames(game, counts);
+                }
+                game.undo();
+            }
+        }
+    }
+}
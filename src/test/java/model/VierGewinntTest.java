@@ -457,6 +457,132 @@ public class VierGewinntTest {
 
     }
 
+    /**
+     * Tests the winning pieces on a large board, which does not fit into a bit board.
+     */
+    @Test
+    public void getWinningPiecesTest3() {
+        VierGewinnt game = new VierGewinnt(12, 10);
+        int[] placedPieces = {5, 5, 6, 6, 7, 7, 8};
+        for (int piece : placedPieces) {
+            assertFalse(game.hasEnded());
+            assertTrue(game.placePiece(piece));
+        }
+        assertTrue(game.hasEnded());
+        assertEquals(1, game.getWinningPlayer());
+
+        int[][] comparePieces = {{5, 0}, {6, 0}, {7, 0}, {8, 0}};
+        assertTrue(comparePieces(game.getWinningPieces(), comparePieces));
+    }
+
+    /**
+     * Tests taking back pieces in a running game.
+     */
+    @Test
+    public void undoTest1() {
+        VierGewinnt game = new VierGewinnt();
+
+        assertFalse(game.undo());
+        assertTrue(game.placePiece(3));
+        assertTrue(game.placePiece(3));
+        assertTrue(game.placePiece(4));
+        assertEquals(3, game.getMoveCount());
+        assertEquals(4, game.getMove(2));
+        assertEquals(2, game.getCurrentPlayer());
+
+        assertTrue(game.undo());
+        assertEquals(0, game.getField(4, 0));
+        assertEquals(1, game.getCurrentPlayer());
+        assertEquals(2, game.getMoveCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> game.getMove(2));
+
+        assertTrue(game.undo());
+        assertTrue(game.undo());
+        assertFalse(game.undo());
+        assertEquals(0, game.getField(3, 0));
+        assertEquals(1, game.getCurrentPlayer());
+    }
+
+    /**
+     * Tests taking back the winning piece and the last piece of a draw.
+     */
+    @Test
+    public void undoTest2() {
+        VierGewinnt game = new VierGewinnt();
+        int[] placedPieces = {0, 1, 0, 1, 0, 1, 0};
+        for (int piece : placedPieces) {
+            game.placePiece(piece);
+        }
+        assertTrue(game.hasEnded());
+        assertEquals(4, game.getWinningPieces().length);
+
+        assertTrue(game.undo());
+        assertFalse(game.hasEnded());
+        assertEquals(-1, game.getWinningPlayer());
+        assertEquals(0, game.getWinningPieces().length);
+        assertEquals(1, game.getCurrentPlayer());
+
+        // the other player can now win
+        assertTrue(game.placePiece(2));
+        assertTrue(game.placePiece(1));
+        assertTrue(game.hasEnded());
+        assertEquals(2, game.getWinningPlayer());
+
+        // draw on a custom size board
+        int[] drawPieces = {0, 2, 1, 0, 3, 1, 4, 4, 5, 5, 2, 6, 6, 1, 3, 3, 3, 3, 0, 2, 2, 2, 0, 0, 0, 1, 1, 2, 1, 3, 4, 5, 4, 4, 4, 5, 5, 5, 6, 6, 6, 6, 0, 1, 2, 3, 4, 5, 6};
+        game = new VierGewinnt(7, 7);
+        for (int piece : drawPieces) {
+            game.placePiece(piece);
+        }
+        assertEquals(0, game.getWinningPlayer());
+        int currentPlayer = game.getCurrentPlayer();
+
+        assertTrue(game.undo());
+        assertFalse(game.hasEnded());
+        assertEquals(-1, game.getWinningPlayer());
+        assertEquals(currentPlayer, game.getCurrentPlayer());
+        assertTrue(game.placePiece(6));
+        assertEquals(0, game.getWinningPlayer());
+    }
+
+    /**
+     * Tests that a game can be played again after a reset and the helper methods canPlacePiece and isWinningMove.
+     */
+    @Test
+    public void resetTest() {
+        VierGewinnt game = new VierGewinnt();
+        for (int column : new int[]{3, 3, 4, 4, 5, 5}) {
+            assertTrue(game.canPlacePiece(column));
+            game.placePiece(column);
+        }
+        assertTrue(game.isWinningMove(2, 1));
+        assertTrue(game.isWinningMove(6, 1));
+        assertFalse(game.isWinningMove(2, 2));
+        assertTrue(game.placePiece(6));
+        assertTrue(game.hasEnded());
+        assertFalse(game.canPlacePiece(0));
+        assertFalse(game.isWinningMove(2, 2));
+
+        game.reset();
+        assertFalse(game.hasEnded());
+        assertEquals(-1, game.getWinningPlayer());
+        assertEquals(1, game.getCurrentPlayer());
+        assertEquals(0, game.getMoveCount());
+        assertEquals(0L, game.getPositionKey());
+        assertEquals(0, game.getWinningPieces().length);
+        for (int column = 0; column < game.getColumns(); column++) {
+            assertEquals(0, game.getField(column, 0));
+        }
+
+        // a full column
+        for (int i = 0; i < game.getRows(); i++) {
+            game.placePiece(0);
+        }
+        assertFalse(game.canPlacePiece(0));
+        assertFalse(game.canPlacePiece(-1));
+        assertTrue(game.canPlacePiece(1));
+    }
+
     /**
      * Compares two two-dimensional int arrays by sorting them and then comparing each positions.
      * @param a The first array.
@@ -0,0 +1,96 @@
+package model.action;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionCodecTest {
+
+    private static final Action[] ACTIONS = {
+            new NewPlayerAction("Spieler ä\u0000€"),
+            new PutAction(3, 2),
+            new NewGameAction(),
+            new ExitAction("Server", ExitAction.SERVER_CLOSED),
+            new MessageAction("A", "B", "Hallo 😀")
+    };
+
+    /**
+     * Checks, that the codec writes the same frames as the {@link ActionOutputEncoder} and decodes them again.
+     */
+    @Test
+    public void encodeDecodeTest() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ActionOutputEncoder out = new ActionOutputEncoder(stream);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (Action action : ACTIONS) {
+            out.send(action);
+            int position = buffer.position();
+            ActionCodec.encode(action, buffer);
+            assertEquals(ActionCodec.size(action), buffer.position() - position);
+        }
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        assertArrayEquals(stream.toByteArray(), bytes);
+
+        for (Action action : ACTIONS) {
+            assertEquals(action, ActionCodec.decode(buffer));
+        }
+        assertNull(ActionCodec.decode(buffer));
+    }
+
+    /**
+     * Checks, that incomplete frames are not read.
+     */
+    @Test
+    public void incompleteTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (Action action : ACTIONS) {
+            ActionCodec.encode(action, buffer);
+        }
+        int end = buffer.position();
+        // every prefix of the bytes decodes the complete actions only
+        for (int limit = 0; limit <= end; limit++) {
+            ByteBuffer prefix = buffer.duplicate();
+            prefix.position(0).limit(limit);
+            int count = 0;
+            while (ActionCodec.decode(prefix) != null) {
+                count++;
+            }
+            int size = 0;
+            int expected = 0;
+            while (expected < ACTIONS.length && size + ActionCodec.size(ACTIONS[expected]) <= limit) {
+                size += ActionCodec.size(ACTIONS[expected++]);
+            }
+            assertEquals(expected, count);
+            assertEquals(size, prefix.position());
+        }
+    }
+
+    /**
+     * Checks, that frames with an unknown type are skipped and illegal frames are rejected.
+     */
+    @Test
+    public void unknownTypeTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        buffer.putInt(3).put((byte) 42).putShort((short) 7);
+        ActionCodec.encode(new PutAction(1, 2), buffer);
+        buffer.putInt(1).put((byte) 43);
+        buffer.flip();
+        assertEquals(new PutAction(1, 2), ActionCodec.decode(buffer));
+        assertNull(ActionCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+
+        assertThrows(IllegalArgumentException.class, () -> ActionCodec.decode(ByteBuffer.allocate(4)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ActionCodec.decode(ByteBuffer.allocate(4).putInt(0, ActionCodec.MAX_SIZE)));
+        // a put action with one int
+        ByteBuffer shortFrame = ByteBuffer.allocate(16).putInt(5).put((byte) Action.TYPE_PUT).putInt(1);
+        shortFrame.flip();
+        assertThrows(IllegalArgumentException.class, () -> ActionCodec.decode(shortFrame));
+        assertFalse(shortFrame.hasRemaining());
+    }
+}
@@ -319,4 +319,36 @@ public class ActionEncodingDecodingTest {
         }
     }
 
+    /**
+     * Tests, that a frame with an unknown type is skipped and the following action is read.
+     */
+    @Test
+    public void getActionTest8() {
+        try {
+            DataOutputStream data = new DataOutputStream(outputStream);
+            data.writeInt(5);
+            data.write(42);
+            data.writeInt(7);
+            ActionOutputEncoder out = new ActionOutputEncoder(outputStream);
+            ActionInputDecoder in = new ActionInputDecoder(inputStream);
+
+            // send action
+            Action outputAction = new PutAction(2, 1);
+            out.send(outputAction);
+            // read action
+            new Thread(in).start();
+            Action inputAction = readActionTimeout(in, TIMEOUT);
+            // compare
+            assertEquals(outputAction, inputAction);
+            assertNull(in.getAction());
+
+            in.close();
+            out.close();
+        } catch (IOException e) {
+            fail("The frame could not be written.");
+        } catch (TimeoutException e) {
+            fail("The action could not be read within the given timeout.");
+        }
+    }
+
 }
@@ -0,0 +1,98 @@
+package model.ai;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeDeepeningSearchTest {
+
+    /**
+     * Compares the search without time limit with the exact solver on random positions of a small board.
+     */
+    @Test
+    public void exactSearchTest() {
+        Random random = new Random(3);
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch();
+        Solver solver = new Solver();
+        for (int i = 0; i < 20; i++) {
+            VierGewinnt game = new VierGewinnt(5, 4);
+            while (game.getMoveCount() < 8 && !game.hasEnded()) {
+                game.placePiece(random.nextInt(game.getColumns()));
+            }
+            if (game.hasEnded()) {
+                continue;
+            }
+            SearchInfo info = search.search(game, 60000);
+            assertTrue(info.isExact());
+            assertEquals(solver.solve(game), info.getScore());
+
+            // the principal variation can be played
+            for (int column : info.getPrincipalVariation()) {
+                assertTrue(game.placePiece(column));
+            }
+        }
+    }
+
+    /**
+     * Tests that the search returns a move within the time budget and reports every iteration.
+     */
+    @Test
+    public void timeBudgetTest() {
+        VierGewinnt game = new VierGewinnt();
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch();
+
+        long start = System.currentTimeMillis();
+        SearchInfo info = search.search(game, 100);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertFalse(info.isExact());
+        assertEquals(3, info.getBestMove());
+
+        List<SearchInfo> iterations = search.getIterations();
+        assertFalse(iterations.isEmpty());
+        for (int i = 0; i < iterations.size(); i++) {
+            assertEquals(i + 1, iterations.get(i).getDepth());
+            assertTrue(iterations.get(i).getNodeCount() > 0);
+        }
+        assertSame(info, iterations.get(iterations.size() - 1));
+    }
+
+    /**
+     * Tests that an immediate win is returned without searching.
+     */
+    @Test
+    public void immediateWinTest() {
+        VierGewinnt game = new VierGewinnt();
+        for (int column : new int[]{2, 2, 3, 3, 4, 4}) {
+            game.placePiece(column);
+        }
+        SearchInfo info = new IterativeDeepeningSearch().search(game, 0);
+        assertTrue(info.isExact());
+        assertEquals(1, info.getBestMove());
+        assertEquals(Solver.winScore(Solver.toBoard(game)), info.getScore());
+    }
+
+    /**
+     * Tests that a search without time limit is not cut off and that a stop before the search cancels only the next
+     * search.
+     */
+    @Test
+    public void stopTest() {
+        VierGewinnt game = new VierGewinnt();
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch();
+        SearchInfo info = search.search(game, Long.MAX_VALUE, 4);
+        assertEquals(4, info.getDepth());
+
+        search.stop();
+        info = search.search(game, Long.MAX_VALUE);
+        assertEquals(0, info.getDepth());
+        assertEquals(3, info.getBestMove());
+        assertTrue(search.getIterations().isEmpty());
+
+        info = search.search(game, Long.MAX_VALUE, 2);
+        assertEquals(2, info.getDepth());
+    }
+}
@@ -0,0 +1,96 @@
+package model.ai;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloTreeSearchTest {
+
+    /**
+     * Tests that an immediate win is played and that an immediate threat of the opponent is blocked.
+     */
+    @Test
+    public void winAndBlockTest() {
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch(2);
+        try {
+            VierGewinnt game = new VierGewinnt();
+            for (int column : new int[]{0, 1, 0, 1, 0}) {
+                game.placePiece(column);
+            }
+            // player 2 has to block column 0
+            assertEquals(0, search.search(game, 20000, Long.MAX_VALUE));
+
+            game.placePiece(6);
+            // player 1 wins in column 0
+            assertEquals(0, search.search(game, 1000, Long.MAX_VALUE));
+        } finally {
+            search.close();
+        }
+    }
+
+    /**
+     * Tests that the number of playouts is limited exactly and that all playouts are counted at the root.
+     */
+    @Test
+    public void playoutLimitTest() {
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch(3);
+        try {
+            VierGewinnt game = new VierGewinnt();
+            int column = search.search(game, 5000, Long.MAX_VALUE);
+            assertTrue(column >= 0 && column < game.getColumns());
+            assertEquals(5000, search.getPlayoutCount());
+
+            long visits = 0;
+            for (int c = 0; c < game.getColumns(); c++) {
+                visits += search.getVisits(c);
+                assertTrue(search.getWinRate(c) >= 0 && search.getWinRate(c) <= 1);
+            }
+            assertEquals(5000, visits);
+            assertEquals(search.getVisits(column), maxVisits(search, game.getColumns()));
+            assertTrue(search.getPlayoutsPerSecond() > 0);
+        } finally {
+            search.close();
+        }
+    }
+
+    /**
+     * Tests the time limit on a large board, which is stored in the field array.
+     */
+    @Test
+    public void timeLimitTest() {
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch(2);
+        try {
+            VierGewinnt game = new VierGewinnt(15, 12);
+            game.placePiece(7);
+            long start = System.currentTimeMillis();
+            int column = search.search(game, Long.MAX_VALUE, 200);
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertTrue(column >= 0 && column < 15);
+            assertTrue(search.getPlayoutCount(0) > 0);
+            assertTrue(search.getPlayoutCount(1) > 0);
+            assertEquals(0, search.getVisits(-1));
+            assertTrue(Double.isNaN(search.getWinRate(15)));
+
+            assertThrows(IllegalArgumentException.class, () -> search.search(game, Long.MAX_VALUE, Long.MAX_VALUE));
+            assertThrows(IllegalArgumentException.class, () -> search.search(game, 0, 100));
+        } finally {
+            search.close();
+        }
+    }
+
+    /**
+     * Returns the highest number of visits of all columns of the last search.
+     *
+     * @param search  The search.
+     * @param columns The number of columns.
+     * @return The highest number of visits.
+     */
+    private static int maxVisits(MonteCarloTreeSearch search, int columns) {
+        int max = 0;
+        for (int c = 0; c < columns; c++) {
+            max = Math.max(max, search.getVisits(c));
+        }
+        return max;
+    }
+}
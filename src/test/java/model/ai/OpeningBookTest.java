@@ -0,0 +1,105 @@
+package model.ai;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    /**
+     * Builds a book for a small board and compares every position and its mirror image with the solver.
+     */
+    @Test
+    public void buildTest() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(4, 5, 4).setThreads(2).setTableSize(1);
+        Path file = Files.createTempFile("openingbook", ".bin");
+        try {
+            int count = builder.build(file);
+            assertEquals(builder.findPositions().size(), count);
+            assertEquals(count, builder.getSolvedCount());
+
+            OpeningBook book = OpeningBook.open(file);
+            assertEquals(4, book.getRows());
+            assertEquals(5, book.getColumns());
+            assertEquals(4, book.getMaxMoves());
+            assertEquals(count, book.size());
+            assertEquals(Files.size(file), OpeningBook.HEADER_SIZE + count * 9L);
+
+            Solver solver = new Solver();
+            for (int[] moves : builder.findPositions()) {
+                VierGewinnt game = new VierGewinnt(5, 4);
+                VierGewinnt mirror = new VierGewinnt(5, 4);
+                for (int move : moves) {
+                    game.placePiece(move);
+                    mirror.placePiece(4 - move);
+                }
+                int score = solver.solve(game);
+                assertEquals(score, book.getScore(game));
+                assertEquals(score, book.getScore(mirror));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that positions are found only once, although they can be reached by different moves or mirrored.
+     */
+    @Test
+    public void findPositionsTest() {
+        List<int[]> positions = new OpeningBookBuilder(6, 7, 2).findPositions();
+        // the empty board, 7 first moves folded to 4 and 7 * 7 second moves folded to 25
+        assertEquals(1 + 4 + 25, positions.size());
+    }
+
+    /**
+     * Tests that boards, whose scores do not fit into a byte, are rejected.
+     */
+    @Test
+    public void boardSizeTest() {
+        assertDoesNotThrow(() -> new OpeningBookBuilder(2, 127, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(5, 51, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(0, 7, 0));
+    }
+
+    /**
+     * Tests the best move and that positions outside of the book are not found.
+     */
+    @Test
+    public void getBestMoveTest() throws IOException {
+        Path file = Files.createTempFile("openingbook", ".bin");
+        try {
+            new OpeningBookBuilder(4, 5, 3).setThreads(1).setTableSize(1).build(file);
+            OpeningBook book = OpeningBook.open(file);
+            Solver solver = new Solver();
+
+            VierGewinnt game = new VierGewinnt(5, 4);
+            game.placePiece(1);
+            game.placePiece(2);
+            int[] scores = solver.analyze(game);
+            assertEquals(scores[solver.getBestMove(game)], scores[book.getBestMove(game)]);
+
+            // the book has no positions with more than 3 moves
+            game.placePiece(0);
+            assertEquals(-1, book.getBestMove(game));
+            game.placePiece(0);
+            assertEquals(OpeningBook.NOT_FOUND, book.getScore(game));
+            assertEquals(OpeningBook.NOT_FOUND, book.getScore(new VierGewinnt()));
+
+            // the solver uses the book
+            Solver bookSolver = new Solver();
+            bookSolver.setOpeningBook(book);
+            VierGewinnt start = new VierGewinnt(5, 4);
+            assertEquals(solver.solve(start), bookSolver.solve(start));
+            assertEquals(0, bookSolver.getNodeCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
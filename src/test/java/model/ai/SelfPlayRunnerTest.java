@@ -0,0 +1,68 @@
+package model.ai;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelfPlayRunnerTest {
+
+    /**
+     * Plays random games with several threads and checks the statistics.
+     */
+    @Test
+    public void resultTest() {
+        SelfPlayRunner runner = new SelfPlayRunner(7, 6, 3, MoveStrategy::random, MoveStrategy::random);
+        SelfPlayResult result = runner.run(10000);
+        assertEquals(10000, result.getGames());
+        assertEquals(10000, result.getWins(1) + result.getWins(2) + result.getDraws());
+        long lengths = 0;
+        for (int moves = 0; moves <= 42; moves++) {
+            lengths += result.getGames(moves);
+        }
+        assertEquals(10000, lengths);
+        // a game ends after at least 7 moves
+        assertEquals(0, result.getGames(6));
+        assertTrue(result.getAverageLength() >= 7 && result.getAverageLength() <= 42);
+        // the first player wins more often with random moves
+        assertTrue(result.getWins(1) > result.getWins(2));
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    /**
+     * Writes the moves of the games and replays them.
+     */
+    @Test
+    public void streamTest() throws IOException {
+        SelfPlayRunner runner = new SelfPlayRunner(5, 4, 2,
+                MoveStrategy::greedy, thread -> MoveStrategy.random(thread + 100));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SelfPlayResult result = runner.run(1000, out);
+        byte[] bytes = out.toByteArray();
+
+        SelfPlayResult replayed = new SelfPlayResult(20);
+        int index = 0;
+        while (index < bytes.length) {
+            int winner = bytes[index++];
+            int moves = bytes[index++];
+            VierGewinnt game = new VierGewinnt(5, 4);
+            for (int i = 0; i < moves; i++) {
+                int column = i % 2 == 0 ? (bytes[index] >> 4) & 0xF : bytes[index++] & 0xF;
+                assertTrue(game.placePiece(column));
+            }
+            if (moves % 2 == 1) {
+                index++;
+            }
+            assertTrue(game.hasEnded());
+            assertEquals(winner, game.getWinningPlayer());
+            replayed.add(winner, moves);
+        }
+        assertEquals(result.getGames(), replayed.getGames());
+        assertEquals(result.getWins(1), replayed.getWins(1));
+        assertEquals(result.getDraws(), replayed.getDraws());
+        assertEquals(result.getAverageLength(), replayed.getAverageLength(), 1e-9);
+    }
+}
@@ -0,0 +1,135 @@
+package model.ai;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverTest {
+
+    /**
+     * Tests the score and move of an immediate win.
+     */
+    @Test
+    public void immediateWinTest() {
+        VierGewinnt game = play(new VierGewinnt(5, 4), 0, 1, 0, 1, 0, 2);
+        Solver solver = new Solver();
+
+        // the first player wins with the fourth piece: 10 pieces - 4 + 1
+        assertEquals(7, solver.solve(game));
+        assertEquals(0, solver.getBestMove(game));
+        assertEquals(7, solver.analyze(game)[0]);
+        assertTrue(solver.getNodeCount() > 0);
+    }
+
+    /**
+     * Tests that the player to move blocks an immediate threat.
+     */
+    @Test
+    public void blockTest() {
+        VierGewinnt game = play(new VierGewinnt(5, 4), 1, 1, 2, 2, 3);
+        Solver solver = new Solver();
+
+        // the second player loses: there are two open ends of the row
+        assertTrue(solver.solve(game) < 0);
+
+        game = play(new VierGewinnt(5, 4), 0, 0, 1, 1, 3);
+        // the second player has to block column 2
+        assertEquals(2, solver.getBestMove(game));
+    }
+
+    /**
+     * Tests the solver on the columns of a full column and of a game that has ended.
+     */
+    @Test
+    public void analyzeTest() {
+        VierGewinnt game = play(new VierGewinnt(5, 4), 0, 0, 0, 0);
+        Solver solver = new Solver();
+
+        assertEquals(Solver.INVALID_MOVE, solver.analyze(game)[0]);
+        play(game, 1, 2, 1, 2, 1, 2, 1);
+        assertTrue(game.hasEnded());
+        assertThrows(IllegalStateException.class, () -> solver.solve(game));
+    }
+
+    /**
+     * Compares the solver with a complete minimax search on random positions of small boards.
+     */
+    @Test
+    public void compareWithMinimaxTest() {
+        Random random = new Random(7);
+        Solver solver = new Solver();
+        for (int i = 0; i < 50; i++) {
+            VierGewinnt game = new VierGewinnt(5, 4);
+            while (game.getMoveCount() < 10 && !game.hasEnded()) {
+                game.placePiece(random.nextInt(game.getColumns()));
+            }
+            if (!game.hasEnded()) {
+                assertEquals(minimax(game), solver.solve(game));
+            }
+        }
+    }
+
+    /**
+     * Compares the parallel solver with the single-threaded solver on random positions of the default board.
+     */
+    @Test
+    public void parallelSolverTest() {
+        Random random = new Random(11);
+        ParallelSolver parallelSolver = new ParallelSolver(3, new TranspositionTable(4));
+        for (int i = 0; i < 5; i++) {
+            VierGewinnt game = new VierGewinnt();
+            while (game.getMoveCount() < 22 && !game.hasEnded()) {
+                game.placePiece(random.nextInt(game.getColumns()));
+            }
+            if (!game.hasEnded()) {
+                Solver solver = new Solver(new TranspositionTable(4));
+                assertEquals(solver.solve(game), parallelSolver.solve(game));
+                assertEquals(solver.getBestMove(game), parallelSolver.getBestMove(game));
+                assertTrue(parallelSolver.getNodeCount() > 0);
+            }
+        }
+        parallelSolver.close();
+    }
+
+    /**
+     * Computes the score of the given game by searching every move sequence.
+     *
+     * @param game The game, which has not ended yet.
+     * @return The exact score of the current player.
+     */
+    private int minimax(VierGewinnt game) {
+        int fields = game.getColumns() * game.getRows();
+        int best = Integer.MIN_VALUE;
+        for (int column = 0; column < game.getColumns(); column++) {
+            int moves = game.getMoveCount();
+            if (game.placePiece(column)) {
+                int score;
+                if (game.hasEnded()) {
+                    score = game.getWinningPlayer() == 0 ? 0 : (fields + 1 - moves) / 2;
+                } else {
+                    score = -minimax(game);
+                }
+                game.undo();
+                best = Math.max(best, score);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Places pieces in the given columns.
+     *
+     * @param game    The game.
+     * @param columns The columns of the moves.
+     * @return The game.
+     */
+    private VierGewinnt play(VierGewinnt game, int... columns) {
+        for (int column : columns) {
+            assertTrue(game.placePiece(column));
+        }
+        return game;
+    }
+}
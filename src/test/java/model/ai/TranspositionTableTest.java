@@ -0,0 +1,67 @@
+package model.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    /**
+     * Tests storing and reading entries.
+     */
+    @Test
+    public void storeTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1024 * 1024 / Long.BYTES, table.size());
+
+        long key = 0x123456789ABCDEF0L;
+        assertEquals(TranspositionTable.EMPTY, table.probe(key));
+
+        table.store(key, 30, TranspositionTable.LOWER_BOUND, -17);
+        long entry = table.probe(key);
+        assertNotEquals(TranspositionTable.EMPTY, entry);
+        assertEquals(-17, TranspositionTable.getScore(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(30, TranspositionTable.getDepth(entry));
+
+        // another key in the same slot is not found
+        assertEquals(TranspositionTable.EMPTY, table.probe(key ^ 0x8000000000000000L));
+
+        table.clear();
+        assertEquals(TranspositionTable.EMPTY, table.probe(key));
+    }
+
+    /**
+     * Tests the depth-preferred replacement of entries.
+     */
+    @Test
+    public void replaceTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        long other = key | (1L << 40);
+
+        table.store(key, 20, TranspositionTable.EXACT, 3);
+        // a shallower result of another position does not replace the entry
+        table.store(other, 10, TranspositionTable.EXACT, 5);
+        assertEquals(3, TranspositionTable.getScore(table.probe(key)));
+        assertEquals(TranspositionTable.EMPTY, table.probe(other));
+
+        // a new result of the same position always replaces the entry
+        table.store(key, 5, TranspositionTable.UPPER_BOUND, 1);
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.getBound(table.probe(key)));
+
+        // a deeper result of another position replaces the entry
+        table.store(other, 10, TranspositionTable.EXACT, 5);
+        assertEquals(TranspositionTable.EMPTY, table.probe(key));
+        assertEquals(5, TranspositionTable.getScore(table.probe(other)));
+    }
+
+    /**
+     * Tests illegal table sizes.
+     */
+    @Test
+    public void sizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(-4));
+    }
+}
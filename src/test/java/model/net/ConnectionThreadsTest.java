@@ -0,0 +1,40 @@
+package model.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionThreadsTest {
+
+    /**
+     * Checks, that virtual threads are supported from Java 21 on.
+     */
+    @Test
+    public void supportedTest() {
+        assertEquals(Runtime.version().feature() >= 21, ConnectionThreads.isVirtualSupported());
+    }
+
+    /**
+     * Starts a task in the virtual mode and checks, that it is executed by a named thread, which is a platform thread,
+     * if virtual threads are not supported.
+     */
+    @Test
+    public void startTest() throws Exception {
+        ConnectionThreads.setVirtual(true);
+        try {
+            assertEquals(ConnectionThreads.isVirtualSupported(), ConnectionThreads.isVirtual());
+            CountDownLatch latch = new CountDownLatch(1);
+            Thread thread = ConnectionThreads.start(latch::countDown, "Test");
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals("Test", thread.getName());
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        } finally {
+            ConnectionThreads.setVirtual(false);
+        }
+        assertFalse(ConnectionThreads.isVirtual());
+    }
+}
@@ -0,0 +1,90 @@
+package model.net.server;
+
+import model.action.ActionInputDecoder;
+import model.action.ActionOutputEncoder;
+import model.action.ExitAction;
+import model.action.NewPlayerAction;
+import model.action.PutAction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static model.net.server.SelectorServerTest.await;
+import static model.net.server.SelectorServerTest.readAction;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientHandlerTest {
+
+    /**
+     * Forwards the actions of socket connections and checks, that the thread of the handler does not use the CPU,
+     * while no action arrives.
+     */
+    @Test
+    public void idleTest() throws Exception {
+        ClientHandler handler = new ClientHandler();
+        Thread thread = new Thread(handler);
+        thread.start();
+        try (ServerSocket server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress());
+             Socket socket1 = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             Socket socket2 = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+            assertTrue(handler.addConnection(server.accept()));
+            assertTrue(handler.addConnection(server.accept()));
+            ActionOutputEncoder out1 = new ActionOutputEncoder(socket1.getOutputStream());
+            ActionInputDecoder in2 = new ActionInputDecoder(socket2.getInputStream());
+            new Thread(in2).start();
+
+            out1.send(new NewPlayerAction("Spieler 1"));
+            assertEquals(new NewPlayerAction("Spieler 1"), readAction(in2));
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long cpuTime = threads.getThreadCpuTime(thread.getId());
+            Thread.sleep(500);
+            assertEquals(Thread.State.WAITING, thread.getState());
+            assertTrue(threads.getThreadCpuTime(thread.getId()) - cpuTime < 50_000_000L);
+
+            out1.send(new PutAction(2, 1));
+            assertEquals(new PutAction(2, 1), readAction(in2));
+
+            socket2.shutdownInput();
+            await(() -> !in2.isActive());
+        } finally {
+            handler.close();
+        }
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+    }
+
+    /**
+     * Closes a room, whose task is still scheduled, and checks, that the room is given back only by its last task.
+     */
+    @Test
+    public void closeTest() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        List<ClientHandler> closed = new ArrayList<>();
+        ClientHandler room = new ClientHandler(tasks::add, closed::add);
+        RoomManagerTest.LocalConnection player1 = new RoomManagerTest.LocalConnection();
+        RoomManagerTest.LocalConnection player2 = new RoomManagerTest.LocalConnection();
+        assertTrue(room.addConnection(player1));
+        assertTrue(room.addConnection(player2));
+        assertEquals(1, tasks.size());
+
+        player1.leave();
+        room.close();
+        assertTrue(room.isClosed());
+        assertTrue(closed.isEmpty());
+        assertFalse(room.addConnection(new RoomManagerTest.LocalConnection()));
+
+        tasks.poll().run();
+        assertEquals(List.of(room), closed);
+        assertTrue(tasks.isEmpty());
+        assertEquals(List.of(new ExitAction("Server", ExitAction.SERVER_CLOSED)), player2.getSent());
+    }
+}
@@ -0,0 +1,212 @@
+package model.net.server;
+
+import model.action.Action;
+import model.action.ExitAction;
+import model.action.PutAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+
+import static model.net.server.SelectorServerTest.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomManagerTest {
+
+    /**
+     * A connection in memory, whose actions are given by the test.
+     */
+    static class LocalConnection extends ServerConnection {
+        /**
+         * The actions, that were received from the player.
+         */
+        private final Queue<Action> received = new ConcurrentLinkedQueue<>();
+        /**
+         * The actions, that were sent to the player.
+         */
+        private final Queue<Action> sent = new ConcurrentLinkedQueue<>();
+        /**
+         * If the player is connected.
+         */
+        private volatile boolean isActive = true;
+
+        /**
+         * Receives an action from the player.
+         *
+         * @param action The action.
+         */
+        void receive(Action action) {
+            this.received.add(action);
+            this.notifyListener();
+        }
+
+        /**
+         * Disconnects the player.
+         */
+        void leave() {
+            this.isActive = false;
+            this.notifyListener();
+        }
+
+        /**
+         * Gets the actions, that were sent to the player.
+         *
+         * @return The actions.
+         */
+        List<Action> getSent() {
+            return new ArrayList<>(this.sent);
+        }
+
+        @Override
+        public boolean isActive() {
+            return this.isActive;
+        }
+
+        @Override
+        public Action readAction() {
+            return this.received.poll();
+        }
+
+        @Override
+        public void writeAction(Action action) {
+            this.sent.add(action);
+        }
+
+        @Override
+        public void close() {
+            this.isActive = false;
+        }
+    }
+
+    /**
+     * Plays thousands of games at the same time and checks, that the finished rooms are removed and reused.
+     */
+    @Test
+    public void manyRoomsTest() throws Exception {
+        RoomManager manager = new RoomManager(4);
+        try {
+            int rooms = 2000;
+            List<LocalConnection> connections = new ArrayList<>();
+            for (int i = 0; i < 2 * rooms; i++) {
+                LocalConnection connection = new LocalConnection();
+                connection.setName("Spieler " + i);
+                connections.add(connection);
+                assertTrue(manager.addConnection(connection));
+            }
+            assertEquals(rooms, manager.getRoomCount());
+            assertEquals(rooms, manager.getCreatedRooms());
+
+            // every first player puts a piece in the column of its room
+            for (int i = 0; i < rooms; i++) {
+                connections.get(2 * i).receive(new PutAction(i % 7, 1));
+            }
+            await(() -> connections.stream().filter(c -> !c.getSent().isEmpty()).count() == rooms);
+            for (int i = 0; i < rooms; i++) {
+                assertEquals(List.of(new PutAction(i % 7, 1)), connections.get(2 * i + 1).getSent());
+                assertTrue(connections.get(2 * i).getSent().isEmpty());
+            }
+
+            // the first players leave
+            for (int i = 0; i < rooms; i++) {
+                connections.get(2 * i).leave();
+            }
+            await(() -> manager.getRoomCount() == 0);
+            assertEquals(rooms, manager.getFinishedGames());
+            assertEquals(RoomManager.MAX_FREE_ROOMS, manager.getFreeRoomCount());
+            List<Action> sent = connections.get(1).getSent();
+            assertEquals(new ExitAction("Spieler 0"), sent.get(1));
+            assertEquals(new ExitAction("Server", ExitAction.SERVER_CLOSED), sent.get(2));
+            assertFalse(connections.get(1).isActive());
+
+            // a reused room starts with an empty board
+            LocalConnection player1 = new LocalConnection();
+            LocalConnection player2 = new LocalConnection();
+            manager.addConnection(player1);
+            manager.addConnection(player2);
+            assertEquals(rooms, manager.getCreatedRooms());
+            assertEquals(1, manager.getRoomCount());
+            for (int i = 0; i < 6; i++) {
+                (i % 2 == 0 ? player1 : player2).receive(new PutAction(0, i % 2 + 1));
+                int moves = i + 1;
+                await(() -> player1.getSent().size() + player2.getSent().size() == moves);
+            }
+        } finally {
+            manager.close();
+        }
+    }
+
+    /**
+     * Checks, that a room with a player, who left before a second player arrived, is not used anymore.
+     */
+    @Test
+    public void waitingPlayerLeavesTest() throws Exception {
+        RoomManager manager = new RoomManager(1);
+        try {
+            LocalConnection player1 = new LocalConnection();
+            manager.addConnection(player1);
+            player1.leave();
+            await(() -> manager.getRoomCount() == 0);
+
+            LocalConnection player2 = new LocalConnection();
+            LocalConnection player3 = new LocalConnection();
+            manager.addConnection(player2);
+            manager.addConnection(player3);
+            assertEquals(1, manager.getRoomCount());
+            player2.receive(new PutAction(3, 1));
+            await(() -> player3.getSent().size() == 1);
+        } finally {
+            manager.close();
+        }
+        assertFalse(manager.addConnection(new LocalConnection()));
+    }
+
+    /**
+     * Lets the waiting player leave, while a second player joins. The second player either joins the room and is told
+     * about the left player or waits for a game, but is never closed without a reason.
+     */
+    @Test
+    public void leaveWhileJoiningTest() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            RoomManager manager = new RoomManager(1);
+            try {
+                LocalConnection waiting = new LocalConnection();
+                waiting.setName("Spieler 1");
+                manager.addConnection(waiting);
+                LocalConnection joining = new LocalConnection();
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Thread leave = new Thread(() -> {
+                    try {
+                        barrier.await();
+                    } catch (InterruptedException | BrokenBarrierException e) {
+                        return;
+                    }
+                    waiting.leave();
+                });
+                leave.start();
+                barrier.await();
+                assertTrue(manager.addConnection(joining));
+                leave.join();
+
+                LocalConnection player = new LocalConnection();
+                manager.addConnection(player);
+                joining.receive(new PutAction(3, 1));
+                await(() -> !joining.isActive() || player.getSent().size() == 1);
+                if (joining.isActive()) {
+                    // the second player got a new room or the place of the waiting player
+                    assertEquals(List.of(new PutAction(3, 1)), player.getSent());
+                    assertTrue(joining.getSent().isEmpty());
+                } else {
+                    // the waiting player left after the second player had joined
+                    assertEquals(List.of(new ExitAction("Spieler 1"),
+                            new ExitAction("Server", ExitAction.SERVER_CLOSED)), joining.getSent());
+                }
+            } finally {
+                manager.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package model.net.server;
+
+import model.action.Action;
+import model.action.ActionInputDecoder;
+import model.action.ActionOutputEncoder;
+import model.action.ExitAction;
+import model.action.NewPlayerAction;
+import model.action.PutAction;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectorServerTest {
+
+    private static final int TIMEOUT = 5000;
+
+    /**
+     * Reads an action from the given decoder, whose thread is already started.
+     *
+     * @param in The decoder.
+     * @return The action.
+     * @throws TimeoutException If no action is read within the timeout.
+     */
+    static Action readAction(ActionInputDecoder in) throws TimeoutException, InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        Action action;
+        while ((action = in.getAction()) == null) {
+            if (System.currentTimeMillis() > end) {
+                throw new TimeoutException();
+            }
+            Thread.sleep(1);
+        }
+        return action;
+    }
+
+    /**
+     * Waits, until the condition is true.
+     *
+     * @param condition The condition.
+     * @throws TimeoutException If the condition is not true within the timeout.
+     */
+    static void await(BooleanSupplier condition) throws TimeoutException, InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > end) {
+                throw new TimeoutException();
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Two clients with the blocking encoder and decoder play against each other over the server.
+     */
+    @Test
+    public void playTest() throws Exception {
+        SelectorServer server = new SelectorServer(0, 2);
+        new Thread(server).start();
+        try (Socket socket1 = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             Socket socket2 = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            ActionOutputEncoder out1 = new ActionOutputEncoder(socket1.getOutputStream());
+            ActionInputDecoder in1 = new ActionInputDecoder(socket1.getInputStream());
+            ActionOutputEncoder out2 = new ActionOutputEncoder(socket2.getOutputStream());
+            ActionInputDecoder in2 = new ActionInputDecoder(socket2.getInputStream());
+            new Thread(in1).start();
+            new Thread(in2).start();
+            await(() -> server.getConnectionCount() == 2);
+
+            out1.send(new NewPlayerAction("Spieler 1"));
+            assertEquals(new NewPlayerAction("Spieler 1"), readAction(in2));
+            out2.send(new NewPlayerAction("Spieler 2"));
+            assertEquals(new NewPlayerAction("Spieler 2"), readAction(in1));
+
+            out1.send(new PutAction(3, 1));
+            assertEquals(new PutAction(3, 1), readAction(in2));
+            out2.send(new PutAction(4, 2));
+            assertEquals(new PutAction(4, 2), readAction(in1));
+            assertNull(in1.getAction());
+            assertNull(in2.getAction());
+
+            // the first player leaves, so the server informs the second player and closes the room
+            socket1.shutdownInput();
+            assertEquals(new ExitAction("Spieler 1"), readAction(in2));
+            assertEquals(new ExitAction("Server", ExitAction.SERVER_CLOSED), readAction(in2));
+            await(() -> !in1.isActive() && !in2.isActive());
+            await(() -> server.getConnectionCount() == 0);
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Closes the server with two connected players and checks, that all connections are closed, when it returns.
+     */
+    @Test
+    public void closeTest() throws Exception {
+        SelectorServer server = new SelectorServer(0, 2);
+        new Thread(server).start();
+        try (Socket socket1 = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             Socket socket2 = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            await(() -> server.getConnectionCount() == 2);
+            server.close();
+            assertEquals(0, server.getConnectionCount());
+            // the exit action of the other player may arrive before the end of the stream
+            for (Socket socket : List.of(socket1, socket2)) {
+                socket.setSoTimeout(TIMEOUT);
+                while (socket.getInputStream().read() >= 0) {
+                    // skips the actions
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds many idle connections on two loops without a thread and a buffer per connection.
+     */
+    @Test
+    public void manyConnectionsTest() throws Exception {
+        SelectorServer server = new SelectorServer(0, 2);
+        new Thread(server).start();
+        int threads = Thread.activeCount();
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                sockets.add(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+            }
+            await(() -> server.getConnectionCount() == sockets.size());
+            assertTrue(Thread.activeCount() <= threads + 2);
+            assertTrue(server.getPool().getAllocated() <= 4);
+
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            await(() -> server.getConnectionCount() == 0);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            server.close();
+        }
+    }
+}
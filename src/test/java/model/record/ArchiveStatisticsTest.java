@@ -0,0 +1,73 @@
+package model.record;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveStatisticsTest {
+
+    /**
+     * Compares the statistics, that are computed in parallel, with the statistics of the records.
+     */
+    @Test
+    public void computeTest() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        try {
+            List<GameRecord> records = GameArchiveTest.randomRecords(5000, new Random(20));
+            long[] results = new long[4];
+            long[][] firstMoves = new long[7][4];
+            long[][] plies = new long[42][7];
+            long games = 0;
+            long moves = 0;
+            try (GameArchive archive = GameArchive.open(directory, GameArchive.MIN_SEGMENT_SIZE)) {
+                for (GameRecord record : records) {
+                    archive.append(record);
+                    if (record.getColumns() == 7) {
+                        results[record.getResult() + 1]++;
+                        if (record.getMoveCount() > 0) {
+                            firstMoves[record.getMove(0)][record.getResult() + 1]++;
+                        }
+                        for (int ply = 0; ply < record.getMoveCount(); ply++) {
+                            plies[ply][record.getMove(ply)]++;
+                        }
+                    }
+                    games++;
+                    moves += record.getMoveCount();
+                }
+
+                ArchiveStatistics statistics = ArchiveStatistics.compute(archive, 3, 100);
+                assertEquals(games, statistics.getGames());
+                assertEquals((double) moves / games, statistics.getAverageLength(), 1e-9);
+                assertEquals(2, statistics.getBoards().size());
+                assertNull(statistics.getBoard(8, 8));
+
+                ArchiveStatistics.BoardStatistics board = statistics.getBoard(7, 6);
+                for (int result = GameRecord.UNFINISHED; result <= 2; result++) {
+                    assertEquals(results[result + 1], board.getGames(result));
+                }
+                assertEquals((double) results[1] / (results[1] + results[2] + results[3]), board.getDrawRate(), 1e-9);
+                for (int column = 0; column < 7; column++) {
+                    for (int result = GameRecord.UNFINISHED; result <= 2; result++) {
+                        assertEquals(firstMoves[column][result + 1], board.getFirstMoveGames(column, result));
+                    }
+                    for (int ply = 0; ply < 42; ply++) {
+                        assertEquals(plies[ply][column], board.getColumnCount(ply, column));
+                    }
+                }
+
+                // the same statistics with one thread and one range
+                ArchiveStatistics sequential = ArchiveStatistics.compute(archive, 1, records.size());
+                assertEquals(statistics.getBoard(9, 7).toString(), sequential.getBoard(9, 7).toString());
+                assertEquals(board.toString(), sequential.getBoard(7, 6).toString());
+            }
+        } finally {
+            GameArchiveTest.delete(directory);
+        }
+    }
+}
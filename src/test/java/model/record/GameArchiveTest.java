@@ -0,0 +1,159 @@
+package model.record;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameArchiveTest {
+
+    /**
+     * Appends games to an archive with small segments, looks them up by id and scans them.
+     */
+    @Test
+    public void appendReadTest() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        try {
+            // more games than index entries in the buffer
+            List<GameRecord> records = randomRecords(9000, new Random(18));
+            try (GameArchive archive = GameArchive.open(directory, GameArchive.MIN_SEGMENT_SIZE)) {
+                for (int i = 0; i < records.size(); i++) {
+                    assertEquals(i, archive.append(records.get(i)));
+                }
+                assertEquals(records.size(), archive.size());
+                assertTrue(archive.getSegmentCount() > 1);
+
+                Random random = new Random(1);
+                for (int i = 0; i < 1000; i++) {
+                    int id = random.nextInt(records.size());
+                    assertEquals(records.get(id), archive.get(id));
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> archive.get(records.size()));
+
+                long[] next = {0};
+                archive.scan((id, record) -> {
+                    assertEquals(next[0]++, id);
+                    GameRecord expected = records.get((int) id);
+                    assertEquals(expected.getResult(), record.getResult());
+                    assertEquals(expected.getMoveCount(), record.getMoveCount());
+                    for (int i = 0; i < record.getMoveCount(); i++) {
+                        assertEquals(expected.getMove(i), record.getMove(i));
+                    }
+                    assertEquals(expected.getPlayer(2), record.getPlayer(2));
+                    assertEquals(expected.getEndTime(), record.getEndTime());
+                    assertEquals(expected, record.toRecord());
+                });
+                assertEquals(records.size(), next[0]);
+
+                // a range over several segments
+                next[0] = 1000;
+                archive.scan(1000, 5500, (id, record) -> {
+                    assertEquals(next[0]++, id);
+                    assertEquals(records.get((int) id), record.toRecord());
+                });
+                assertEquals(5500, next[0]);
+                assertThrows(IndexOutOfBoundsException.class, () -> archive.scan(5, records.size() + 1, null));
+            }
+
+            // the segments can be read as record streams
+            try (InputStream in = Files.newInputStream(directory.resolve("segment-00000.vgr"));
+                 GameRecordReader reader = new GameRecordReader(in)) {
+                assertEquals(records.get(0), reader.read());
+            }
+
+            // the ids continue after the archive is opened again
+            try (GameArchive archive = GameArchive.open(directory, GameArchive.MIN_SEGMENT_SIZE)) {
+                assertEquals(records.size(), archive.size());
+                assertEquals(records.size(), archive.append(records.get(0)));
+                assertEquals(records.get(0), archive.get(records.size()));
+                assertEquals(records.get(records.size() - 1), archive.get(records.size() - 1));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Checks, that incomplete records are removed, when an archive is opened.
+     */
+    @Test
+    public void recoverTest() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        try {
+            List<GameRecord> records = randomRecords(100, new Random(19));
+            try (GameArchive archive = GameArchive.open(directory)) {
+                for (GameRecord record : records) {
+                    archive.append(record);
+                }
+            }
+            // cut the last record and add half an index entry
+            Path segment = directory.resolve("segment-00000.vgr");
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+            Files.write(directory.resolve("index.vgi"), new byte[3], StandardOpenOption.APPEND);
+
+            try (GameArchive archive = GameArchive.open(directory)) {
+                assertEquals(records.size() - 1, archive.size());
+                assertEquals(records.get(records.size() - 2), archive.get(records.size() - 2));
+                assertEquals(records.size() - 1, archive.append(records.get(5)));
+                assertEquals(records.get(5), archive.get(records.size() - 1));
+            }
+
+            GameRecord invalid = new GameRecord(7, 6, "A", "B", 2, 0, 0, new int[]{0, 1, 0, 1, 0, 1, 0});
+            try (GameArchive archive = GameArchive.open(directory)) {
+                assertThrows(IllegalArgumentException.class, () -> archive.append(invalid));
+                assertEquals(records.size(), archive.size());
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Creates records of random games.
+     *
+     * @param count  The number of records.
+     * @param random The random generator.
+     * @return The records.
+     */
+    static List<GameRecord> randomRecords(int count, Random random) {
+        List<GameRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            VierGewinnt game = i % 10 == 0 ? new VierGewinnt(9, 7) : new VierGewinnt();
+            int moves = i % 7 == 0 ? random.nextInt(10) : Integer.MAX_VALUE;
+            while (!game.hasEnded() && game.getMoveCount() < moves) {
+                game.placePiece(random.nextInt(game.getColumns()));
+            }
+            long start = 1600000000000L + random.nextInt(1000000000);
+            records.add(GameRecord.of(game, "Spieler " + i % 50, "Gegner " + i % 13, start,
+                    start + random.nextInt(600000)));
+        }
+        return records;
+    }
+
+    /**
+     * Deletes the given directory with all files.
+     *
+     * @param directory The directory.
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package model.record;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRecordTest {
+
+    /**
+     * Writes and reads random games of different sizes, finished and unfinished.
+     */
+    @Test
+    public void writeReadTest() throws IOException {
+        Random random = new Random(17);
+        int[][] sizes = {{7, 6}, {4, 4}, {1, 1}, {2, 8}, {9, 9}, {16, 12}, {17, 3}, {255, 2}};
+        List<GameRecord> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int[] size = sizes[i % sizes.length];
+            VierGewinnt game = randomGame(size[0], size[1], random, i % 5 == 0 ? 3 : Integer.MAX_VALUE);
+            long start = random.nextLong() >>> 20;
+            records.add(GameRecord.of(game, "Spieler " + i, i % 3 == 0 ? "Jörg Übermaß" : "", start,
+                    start + random.nextInt(1000000)));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(out)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+            assertEquals(records.size(), writer.getCount());
+        }
+
+        try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(out.toByteArray()))) {
+            for (GameRecord record : records) {
+                GameRecord read = reader.read();
+                assertEquals(record, read);
+                assertEquals(record.getMoveCount(), reader.getGame().getMoveCount());
+                assertEquals(record.getResult(), reader.getGame().getWinningPlayer());
+            }
+            assertNull(reader.read());
+            assertEquals(records.size(), reader.getCount());
+        }
+    }
+
+    /**
+     * Checks, that the moves are packed with 3 bits per move on the default board.
+     */
+    @Test
+    public void sizeTest() throws IOException {
+        VierGewinnt game = new VierGewinnt();
+        // a draw with 42 moves
+        int[] columns = {0, 1, 0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 2, 3, 2, 3, 2, 3, 3, 2, 3, 2, 3, 2,
+                4, 5, 4, 5, 4, 5, 5, 4, 5, 4, 5, 4, 6, 6, 6, 6, 6, 6};
+        for (int column : columns) {
+            assertTrue(game.placePiece(column));
+        }
+        assertEquals(0, game.getWinningPlayer());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(out)) {
+            writer.write(GameRecord.of(game, "A", "B", 1600000000000L, 1600000600000L));
+        }
+        // header, length, sizes and result, times, names, move count and 42 * 3 bits
+        assertEquals(5 + 1 + 3 + 9 + 4 + 1 + 16, out.size());
+    }
+
+    /**
+     * Checks, that invalid records are rejected.
+     */
+    @Test
+    public void invalidTest() throws IOException {
+        // the moves continue after the win of player 1
+        GameRecord won = new GameRecord(7, 6, "A", "B", 1, 0, 0, new int[]{0, 1, 0, 1, 0, 1, 0, 1});
+        assertThrows(IllegalStateException.class, won::replay);
+        // the result does not match
+        GameRecord wrongResult = new GameRecord(7, 6, "A", "B", 2, 0, 0, new int[]{0, 1, 0, 1, 0, 1, 0});
+        assertThrows(IllegalStateException.class, wrongResult::replay);
+        assertThrows(IOException.class, () -> readAll(write(wrongResult)));
+        // a full column
+        GameRecord full = new GameRecord(2, 2, "A", "B", GameRecord.UNFINISHED, 0, 0, new int[]{0, 0, 0});
+        assertThrows(IOException.class, () -> readAll(write(full)));
+
+        GameRecord valid = new GameRecord(7, 6, "A", "B", 1, 0, 0, new int[]{0, 1, 0, 1, 0, 1, 0});
+        byte[] bytes = write(valid);
+        assertEquals(valid, readAll(bytes).get(0));
+        // a truncated record
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> readAll(truncated));
+        // a wrong magic number
+        bytes[0] = 'X';
+        assertThrows(IOException.class, () -> readAll(bytes));
+
+        String name = "x".repeat(GameRecord.MAX_NAME_LENGTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> write(new GameRecord(7, 6, name, "B", 0, 0, 0, new int[0])));
+    }
+
+    /**
+     * Plays a game with random moves.
+     *
+     * @param columns  The number of columns.
+     * @param rows     The number of rows.
+     * @param random   The random generator.
+     * @param maxMoves The number of moves, after which the game is stopped.
+     * @return The game.
+     */
+    private static VierGewinnt randomGame(int columns, int rows, Random random, int maxMoves) {
+        VierGewinnt game = new VierGewinnt(columns, rows);
+        while (!game.hasEnded() && game.getMoveCount() < maxMoves) {
+            game.placePiece(random.nextInt(columns));
+        }
+        return game;
+    }
+
+    /**
+     * Writes the given record to a byte array.
+     *
+     * @param record The record.
+     * @return The bytes.
+     */
+    private static byte[] write(GameRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(out)) {
+            writer.write(record);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads all records of the given bytes.
+     *
+     * @param bytes The bytes.
+     * @return The records.
+     */
+    private static List<GameRecord> readAll(byte[] bytes) throws IOException {
+        List<GameRecord> records = new ArrayList<>();
+        try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(bytes))) {
+            GameRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
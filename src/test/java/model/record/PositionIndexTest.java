@@ -0,0 +1,112 @@
+package model.record;
+
+import model.VierGewinnt;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionIndexTest {
+
+    /**
+     * Builds the index in several steps and compares the games of positions with the games of the archive.
+     */
+    @Test
+    public void lookupTest() throws IOException {
+        Path directory = Files.createTempDirectory("positions");
+        try {
+            List<GameRecord> records = GameArchiveTest.randomRecords(4000, new Random(19));
+            // the games of every position, computed by replaying all games
+            Map<Long, List<Long>> expected = new HashMap<>();
+            for (int id = 0; id < records.size(); id++) {
+                GameRecord record = records.get(id);
+                VierGewinnt game = new VierGewinnt(record.getColumns(), record.getRows());
+                expected.computeIfAbsent(PositionIndex.getKey(game), key -> new ArrayList<>()).add((long) id);
+                for (int move : record.getMoves()) {
+                    game.placePiece(move);
+                    expected.computeIfAbsent(PositionIndex.getKey(game), key -> new ArrayList<>()).add((long) id);
+                }
+            }
+
+            try (GameArchive archive = GameArchive.open(directory.resolve("archive"))) {
+                for (int i = 0; i < 1500; i++) {
+                    archive.append(records.get(i));
+                }
+                try (PositionIndex index = PositionIndex.open(directory.resolve("index"), 70000)) {
+                    assertEquals(1500, index.update(archive));
+                }
+                for (int i = 1500; i < records.size(); i++) {
+                    archive.append(records.get(i));
+                }
+                // the index continues after it is opened again
+                try (PositionIndex index = PositionIndex.open(directory.resolve("index"), 70000)) {
+                    assertEquals(1500, index.getGameCount());
+                    assertEquals(records.size() - 1500, index.update(archive));
+
+                    long[] keys = expected.keySet().stream().mapToLong(Long::longValue).toArray();
+                    Map<Long, List<Long>> found = new HashMap<>();
+                    index.lookup(keys, (key, id, result) -> {
+                        found.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+                        assertEquals(records.get((int) id).getResult(), result);
+                    });
+                    assertEquals(expected, found);
+                    // the lookup wrote the last games to a run, which was merged with the first run
+                    assertEquals(1, index.getRunCount());
+                    try (Stream<Path> files = Files.list(directory.resolve("index"))) {
+                        assertEquals(1, files.count());
+                    }
+
+                    long[][] counts = index.getResultCounts(new long[]{keys[0], 42, keys[0]});
+                    assertEquals(expected.get(keys[0]).size(),
+                            counts[0][0] + counts[0][1] + counts[0][2] + counts[0][3]);
+                    assertArrayEquals(new long[4], counts[1]);
+                    assertArrayEquals(counts[0], counts[2]);
+                }
+            }
+        } finally {
+            GameArchiveTest.delete(directory);
+        }
+    }
+
+    /**
+     * Checks the results of the first moves on the default board.
+     */
+    @Test
+    public void moveStatisticsTest() throws IOException {
+        Path directory = Files.createTempDirectory("positions");
+        try {
+            List<GameRecord> records = GameArchiveTest.randomRecords(500, new Random(20));
+            long[][] expected = new long[7][4];
+            try (PositionIndex index = PositionIndex.open(directory)) {
+                VierGewinnt game = new VierGewinnt();
+                for (int id = 0; id < records.size(); id++) {
+                    GameRecord record = records.get(id);
+                    index.add(id, record);
+                    if (record.getColumns() == 7 && record.getMoveCount() > 0) {
+                        expected[record.getMove(0)][record.getResult() + 1]++;
+                    }
+                    if (id == 400) {
+                        // the lookup writes a run and the next lookup searches both runs
+                        assertArrayEquals(expected, index.getMoveStatistics(game));
+                    }
+                }
+                assertThrows(IllegalArgumentException.class, () -> index.add(0, records.get(0)));
+
+                assertArrayEquals(expected, index.getMoveStatistics(game));
+                assertEquals(2, index.getRunCount());
+                assertEquals(0, game.getMoveCount());
+            }
+        } finally {
+            GameArchiveTest.delete(directory);
+        }
+    }
+}